@@ -39,10 +39,10 @@ public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilt
             response.getHeaders().add("Access-Control-Allow-Credentials", "true");
             response.getHeaders().add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD");
             response.getHeaders().add("Access-Control-Allow-Headers",
-                    "Origin, Accept, Content-Type, Authorization, Authentication, Recaptcha");
+                    "Origin, Accept, Content-Type, Authorization, Authentication, Recaptcha, Read-Your-Writes");
         }
 
-        response.getHeaders().add("Access-Control-Expose-Headers", "Authentication");
+        response.getHeaders().add("Access-Control-Expose-Headers", "Authentication, Next-Cursor");
         response.getHeaders().add("Access-Control-Allow-Origin", "*");
     }
 
@@ -0,0 +1,54 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class CacheMetricsDTO {
+
+    @SerializedName(value = "entity")
+    private String entity;
+
+    @SerializedName(value = "hits")
+    private long hits;
+
+    @SerializedName(value = "misses")
+    private long misses;
+
+    @SerializedName(value = "max_size")
+    private int maxSize;
+
+    @SerializedName(value = "ttl_ms")
+    private long ttlMillis;
+
+    public CacheMetricsDTO(String entity, long hits, long misses, int maxSize, long ttlMillis) {
+        this.entity = entity;
+        this.hits = hits;
+        this.misses = misses;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+}
@@ -35,6 +35,16 @@ public class CompanyDTO {
         });
     }
 
+    /**
+     * Projection constructor, used by SELECT NEW queries. Statuses are added
+     * afterwards with addCompanyStatusDTO.
+     */
+    public CompanyDTO(UUID id, String name, String cvr) {
+        this.id = id;
+        this.name = name;
+        this.cvr = cvr;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -0,0 +1,94 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class ConnectionPoolMetricsDTO {
+
+    @SerializedName(value = "active")
+    private int active;
+
+    @SerializedName(value = "idle")
+    private int idle;
+
+    @SerializedName(value = "total")
+    private int total;
+
+    @SerializedName(value = "waiting")
+    private int waiting;
+
+    @SerializedName(value = "min_idle")
+    private int minIdle;
+
+    @SerializedName(value = "max_size")
+    private int maxSize;
+
+    @SerializedName(value = "acquired")
+    private long acquired;
+
+    @SerializedName(value = "timeouts")
+    private long timeouts;
+
+    @SerializedName(value = "acquire_avg_ms")
+    private double acquireAverageMillis;
+
+    @SerializedName(value = "acquire_max_ms")
+    private double acquireMaxMillis;
+
+    public ConnectionPoolMetricsDTO(int active, int idle, int total, int waiting, int minIdle, int maxSize, long acquired, long timeouts, double acquireAverageMillis, double acquireMaxMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.waiting = waiting;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquired = acquired;
+        this.timeouts = timeouts;
+        this.acquireAverageMillis = acquireAverageMillis;
+        this.acquireMaxMillis = acquireMaxMillis;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public double getAcquireAverageMillis() {
+        return acquireAverageMillis;
+    }
+
+    public double getAcquireMaxMillis() {
+        return acquireMaxMillis;
+    }
+
+}
@@ -0,0 +1,86 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Interview overview of one employee on the manager dashboard.
+ *
+ * @author Nicklas Nielsen
+ */
+public class EmployeeDashboardDTO {
+
+    @SerializedName(value = "employee_id")
+    private UUID employeeId;
+
+    @SerializedName(value = "employee_fullname")
+    private String employeeFullname;
+
+    @SerializedName(value = "next_interview")
+    private String nextInterview;
+
+    @SerializedName(value = "last_interview")
+    private String lastInterview;
+
+    @SerializedName(value = "upcoming")
+    private long upcoming;
+
+    @SerializedName(value = "previous")
+    private long previous;
+
+    @SerializedName(value = "unanswered_questions")
+    private long unansweredQuestions;
+
+    /**
+     * Projection constructor, used by SELECT NEW queries. The aggregates are
+     * set afterwards.
+     */
+    public EmployeeDashboardDTO(UUID employeeId, UUID personId, String firstname, String middlename, String lastname) {
+        this.employeeId = employeeId;
+        employeeFullname = new PersonDTO(personId, firstname, middlename, lastname).getFullname();
+    }
+
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeFullname() {
+        return employeeFullname;
+    }
+
+    public String getNextInterview() {
+        return nextInterview;
+    }
+
+    public String getLastInterview() {
+        return lastInterview;
+    }
+
+    public long getUpcoming() {
+        return upcoming;
+    }
+
+    public void setUpcoming(LocalDateTime nextInterview, long upcoming) {
+        this.nextInterview = nextInterview == null ? null : nextInterview.toString();
+        this.upcoming = upcoming;
+    }
+
+    public long getPrevious() {
+        return previous;
+    }
+
+    public void setPrevious(LocalDateTime lastInterview, long previous) {
+        this.lastInterview = lastInterview == null ? null : lastInterview.toString();
+        this.previous = previous;
+    }
+
+    public long getUnansweredQuestions() {
+        return unansweredQuestions;
+    }
+
+    public void setUnansweredQuestions(long unansweredQuestions) {
+        this.unansweredQuestions = unansweredQuestions;
+    }
+
+}
@@ -0,0 +1,46 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class EntityManagerMetricsDTO {
+
+    @SerializedName(value = "requests")
+    private long requests;
+
+    @SerializedName(value = "opened")
+    private long opened;
+
+    @SerializedName(value = "leaked")
+    private long leaked;
+
+    @SerializedName(value = "rolled_back")
+    private long rolledBack;
+
+    public EntityManagerMetricsDTO(long requests, long opened, long leaked, long rolledBack) {
+        this.requests = requests;
+        this.opened = opened;
+        this.leaked = leaked;
+        this.rolledBack = rolledBack;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getOpened() {
+        return opened;
+    }
+
+    public long getLeaked() {
+        return leaked;
+    }
+
+    public long getRolledBack() {
+        return rolledBack;
+    }
+
+}
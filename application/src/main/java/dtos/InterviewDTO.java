@@ -16,6 +16,9 @@ public class InterviewDTO {
     @SerializedName(value = "id")
     private UUID id;
 
+    @SerializedName(value = "version")
+    private long version;
+
     @SerializedName(value = "created")
     private String created;
 
@@ -45,6 +48,7 @@ public class InterviewDTO {
 
     public InterviewDTO(Interview interview) {
         id = interview.getId();
+        version = interview.getVersion();
 
         if (interview.getCreated() != null) {
             created = interview.getCreated().toString();
@@ -91,6 +95,14 @@ public class InterviewDTO {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getCreated() {
         return created;
     }
@@ -14,6 +14,9 @@ public class InterviewQuestionAnswerDTO {
     @SerializedName(value = "id")
     private UUID id;
 
+    @SerializedName(value = "version")
+    private long version;
+
     @SerializedName(value = "user_id")
     private UUID userId;
 
@@ -25,6 +28,7 @@ public class InterviewQuestionAnswerDTO {
 
     public InterviewQuestionAnswerDTO(InterviewQuestionAnswer interviewQuestionAnswer) {
         id = interviewQuestionAnswer.getId();
+        version = interviewQuestionAnswer.getVersion();
         userId = interviewQuestionAnswer.getUser().getId();
         userFullname = interviewQuestionAnswer.getUser().getFullname();
         answer = interviewQuestionAnswer.getAnswer();
@@ -38,6 +42,14 @@ public class InterviewQuestionAnswerDTO {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public UUID getUserId() {
         return userId;
     }
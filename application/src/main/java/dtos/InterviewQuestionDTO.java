@@ -16,6 +16,9 @@ public class InterviewQuestionDTO {
     @SerializedName(value = "id")
     private UUID id;
 
+    @SerializedName(value = "version")
+    private long version;
+
     @SerializedName(value = "question")
     private String question;
 
@@ -24,6 +27,7 @@ public class InterviewQuestionDTO {
 
     public InterviewQuestionDTO(InterviewQuestion interviewQuestion) {
         id = interviewQuestion.getId();
+        version = interviewQuestion.getVersion();
         question = interviewQuestion.getQuestion();
 
         interviewQuestionAnswers = new ArrayList<>();
@@ -41,6 +45,14 @@ public class InterviewQuestionDTO {
         this.id = id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getQuestion() {
         return question;
     }
@@ -0,0 +1,41 @@
+package dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One requested interview in a bulk scheduling request.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewScheduleDTO {
+
+    private int index;
+    private UUID managerId;
+    private UUID employeeId;
+    private LocalDateTime held;
+
+    public InterviewScheduleDTO(int index, UUID managerId, UUID employeeId, LocalDateTime held) {
+        this.index = index;
+        this.managerId = managerId;
+        this.employeeId = employeeId;
+        this.held = held;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public UUID getManagerId() {
+        return managerId;
+    }
+
+    public UUID getEmployeeId() {
+        return employeeId;
+    }
+
+    public LocalDateTime getHeld() {
+        return held;
+    }
+
+}
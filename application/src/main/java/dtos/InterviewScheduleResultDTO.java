@@ -0,0 +1,52 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.UUID;
+
+/**
+ * Outcome of one row in a bulk scheduling request.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewScheduleResultDTO {
+
+    @SerializedName(value = "index")
+    private int index;
+
+    @SerializedName(value = "status")
+    private int status;
+
+    @SerializedName(value = "interview_id")
+    private UUID interviewId;
+
+    @SerializedName(value = "message")
+    private String message;
+
+    public InterviewScheduleResultDTO(int index, int status, UUID interviewId, String message) {
+        this.index = index;
+        this.status = status;
+        this.interviewId = interviewId;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public UUID getInterviewId() {
+        return interviewId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isCreated() {
+        return interviewId != null;
+    }
+
+}
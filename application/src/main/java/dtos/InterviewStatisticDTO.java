@@ -0,0 +1,94 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+import entities.InterviewStatistic;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Interview totals of one company for one month and template.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewStatisticDTO {
+
+    @SerializedName(value = "month")
+    private String month;
+
+    @SerializedName(value = "template_id")
+    private UUID templateId;
+
+    @SerializedName(value = "template_name")
+    private String templateName;
+
+    @SerializedName(value = "interviews")
+    private long interviews;
+
+    @SerializedName(value = "completed")
+    private long completed;
+
+    @SerializedName(value = "completion_rate")
+    private double completionRate;
+
+    @SerializedName(value = "questions")
+    private long questions;
+
+    @SerializedName(value = "answered_questions")
+    private long answeredQuestions;
+
+    @SerializedName(value = "answer_coverage")
+    private double answerCoverage;
+
+    public InterviewStatisticDTO(InterviewStatistic statistic) {
+        month = YearMonth.from(statistic.getMonth()).toString();
+        templateId = statistic.getInterviewTemplate().getId();
+        templateName = statistic.getInterviewTemplate().getName();
+        interviews = statistic.getInterviews();
+        completed = statistic.getCompleted();
+        completionRate = getRate(completed, interviews);
+        questions = statistic.getQuestions();
+        answeredQuestions = statistic.getAnsweredQuestions();
+        answerCoverage = getRate(answeredQuestions, questions);
+    }
+
+    private static double getRate(long part, long total) {
+        return total > 0 ? (double) part / total : 0;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public UUID getTemplateId() {
+        return templateId;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public long getInterviews() {
+        return interviews;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public double getCompletionRate() {
+        return completionRate;
+    }
+
+    public long getQuestions() {
+        return questions;
+    }
+
+    public long getAnsweredQuestions() {
+        return answeredQuestions;
+    }
+
+    public double getAnswerCoverage() {
+        return answerCoverage;
+    }
+
+}
@@ -0,0 +1,66 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+import entities.InterviewTimelineEntry;
+import java.util.UUID;
+
+/**
+ * An interview as shown in the interview lists, without questions and
+ * answers.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewTimelineDTO {
+
+    @SerializedName(value = "id")
+    private UUID id;
+
+    @SerializedName(value = "held")
+    private String held;
+
+    @SerializedName(value = "template_name")
+    private String templateName;
+
+    @SerializedName(value = "counterparts")
+    private String counterparts;
+
+    @SerializedName(value = "answered")
+    private int answered;
+
+    @SerializedName(value = "questions")
+    private int questions;
+
+    public InterviewTimelineDTO(InterviewTimelineEntry entry) {
+        id = entry.getInterviewId();
+        held = entry.getHeld() == null ? null : entry.getHeld().toString();
+        templateName = entry.getTemplateName();
+        counterparts = entry.getCounterparts();
+        answered = entry.getAnswered();
+        questions = entry.getQuestions();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getHeld() {
+        return held;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public String getCounterparts() {
+        return counterparts;
+    }
+
+    public int getAnswered() {
+        return answered;
+    }
+
+    public int getQuestions() {
+        return questions;
+    }
+
+}
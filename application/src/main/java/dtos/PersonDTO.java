@@ -38,11 +38,34 @@ public class PersonDTO {
             lastname = "UNKNOWN";
         }
 
-        if (!middlename.isEmpty()) {
-            fullname = String.format("%s %s %s", firstname, middlename, lastname);
+        fullname = getFullname(firstname, middlename, lastname);
+    }
+
+    /**
+     * Projection constructor, used by SELECT NEW queries. A null id means the
+     * user has no person (outer join).
+     */
+    public PersonDTO(UUID id, String firstname, String middlename, String lastname) {
+        if (id != null) {
+            this.id = id;
+            this.firstname = firstname;
+            this.middlename = middlename;
+            this.lastname = lastname;
         } else {
-            fullname = String.format("%s %s", firstname, lastname);
+            this.firstname = "UNKNOWN";
+            this.middlename = "UNKNOWN";
+            this.lastname = "UNKNOWN";
         }
+
+        fullname = getFullname(this.firstname, this.middlename, this.lastname);
+    }
+
+    private static String getFullname(String firstname, String middlename, String lastname) {
+        if (!middlename.isEmpty()) {
+            return String.format("%s %s %s", firstname, middlename, lastname);
+        }
+
+        return String.format("%s %s", firstname, lastname);
     }
 
     public UUID getId() {
@@ -21,6 +21,11 @@ public class RoleDTO {
         isDefault = role.isDefault();
     }
 
+    public RoleDTO(String type, boolean isDefault) {
+        this.type = type;
+        this.isDefault = isDefault;
+    }
+
     public String getType() {
         return type;
     }
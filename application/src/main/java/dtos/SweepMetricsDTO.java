@@ -0,0 +1,62 @@
+package dtos;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class SweepMetricsDTO {
+
+    @SerializedName(value = "runs")
+    private long runs;
+
+    @SerializedName(value = "failures")
+    private long failures;
+
+    @SerializedName(value = "revoked_tokens_deleted")
+    private long revokedTokensDeleted;
+
+    @SerializedName(value = "recovery_codes_cleared")
+    private long recoveryCodesCleared;
+
+    @SerializedName(value = "last_run")
+    private String lastRun;
+
+    @SerializedName(value = "last_duration_ms")
+    private long lastDurationMs;
+
+    public SweepMetricsDTO(long runs, long failures, long revokedTokensDeleted, long recoveryCodesCleared, String lastRun, long lastDurationMs) {
+        this.runs = runs;
+        this.failures = failures;
+        this.revokedTokensDeleted = revokedTokensDeleted;
+        this.recoveryCodesCleared = recoveryCodesCleared;
+        this.lastRun = lastRun;
+        this.lastDurationMs = lastDurationMs;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getRevokedTokensDeleted() {
+        return revokedTokensDeleted;
+    }
+
+    public long getRecoveryCodesCleared() {
+        return recoveryCodesCleared;
+    }
+
+    public String getLastRun() {
+        return lastRun;
+    }
+
+    public long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+}
@@ -36,6 +36,17 @@ public class UserDTO {
         });
     }
 
+    /**
+     * Projection constructor, used by SELECT NEW queries. Roles are added
+     * afterwards with addRoleDTO.
+     */
+    public UserDTO(UUID id, String email, UUID personId, String firstname, String middlename, String lastname) {
+        this.id = id;
+        this.email = email;
+        personDTO = new PersonDTO(personId, firstname, middlename, lastname);
+        roleDTOs = new ArrayList<>();
+    }
+
     public UUID getId() {
         return id;
     }
@@ -13,6 +13,9 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -23,6 +26,8 @@ import javax.persistence.Table;
 @NamedQueries({
     @NamedQuery(name = "Company.deleteAllRows", query = "DELETE FROM Company"),
     @NamedQuery(name = "Company.getAll", query = "SELECT c FROM Company c"),
+    @NamedQuery(name = "Company.getPage", query = "SELECT c FROM Company c WHERE c.id > :id ORDER BY c.id ASC"),
+    @NamedQuery(name = "Company.getDTOs", query = "SELECT NEW dtos.CompanyDTO(c.id, c.name, c.cvr) FROM Company c"),
     @NamedQuery(name = "Company.getByName", query = "SELECT c FROM Company c WHERE c.name = :name"),
     @NamedQuery(name = "Company.getByCvr", query = "SELECT c FROM Company c WHERE c.cvr = :cvr")
 })
@@ -31,8 +36,9 @@ public class Company implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
 
     @OneToMany(mappedBy = "company", cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<CompanyStatus> companyStatuses;
@@ -50,7 +56,7 @@ public class Company implements Serializable {
     private List<Interview> interviews;
 
     public Company(String name, String cvr) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.name = name;
         this.cvr = cvr;
 
@@ -66,7 +72,7 @@ public class Company implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public List<CompanyStatus> getCompanyStatuses() {
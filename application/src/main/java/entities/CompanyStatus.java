@@ -13,6 +13,9 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -23,7 +26,9 @@ import javax.persistence.Table;
 @NamedQueries({
     @NamedQuery(name = "CompanyStatus.deleteAllRows", query = "DELETE FROM CompanyStatus"),
     @NamedQuery(name = "CompanyStatus.getAll", query = "SELECT c FROM CompanyStatus c"),
+    @NamedQuery(name = "CompanyStatus.getPage", query = "SELECT c FROM CompanyStatus c WHERE c.id > :id ORDER BY c.id ASC"),
     @NamedQuery(name = "CompanyStatus.getAllRelatedToCompany", query = "SELECT c FROM CompanyStatus c JOIN c.company co WHERE co.id = :id"),
+    @NamedQuery(name = "CompanyStatus.getAllRelatedToCompanies", query = "SELECT co.id, c FROM CompanyStatus c JOIN c.company co WHERE co.id IN :ids"),
     @NamedQuery(name = "CompanyStatus.getAllByType", query = "SELECT c FROM CompanyStatus c JOIN c.companyStatusType t WHERE t.type = :type"),
     @NamedQuery(name = "CompanyStatus.getAllRelatedToCompanyByType", query = "SELECT c FROM CompanyStatus c JOIN c.company co JOIN c.companyStatusType t WHERE co.id = :id AND t.type = :type")
 })
@@ -32,8 +37,9 @@ public class CompanyStatus implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fk_company")
@@ -50,12 +56,12 @@ public class CompanyStatus implements Serializable {
     private LocalDateTime end;
 
     public CompanyStatus(LocalDateTime start) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.start = start;
     }
 
     public CompanyStatus(LocalDateTime start, LocalDateTime end) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.start = start;
         this.end = end;
     }
@@ -65,7 +71,7 @@ public class CompanyStatus implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public Company getCompany() {
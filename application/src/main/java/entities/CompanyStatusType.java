@@ -13,6 +13,9 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -31,8 +34,9 @@ public class CompanyStatusType implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
 
     @Column(name = "type")
     private String type;
@@ -44,7 +48,7 @@ public class CompanyStatusType implements Serializable {
     private List<CompanyStatus> companyStatuses;
 
     public CompanyStatusType(String type, boolean isDefault) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.type = type;
         this.isDefault = isDefault;
 
@@ -56,7 +60,7 @@ public class CompanyStatusType implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public String getType() {
@@ -7,32 +7,75 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
  * @author Nicklas Nielsen
  */
 @Entity
-@Table(name = "interviews")
+@Table(name = "interviews", indexes = {
+    @Index(name = "idx_interviews_company_deleted_held", columnList = "COMPANY_ID, DELETED, HELD"),
+    @Index(name = "idx_interviews_held", columnList = "HELD"),
+    @Index(name = "idx_interviews_deleted", columnList = "DELETED")
+})
+@NamedEntityGraph(name = "Interview.dto", attributeNodes = {
+    @NamedAttributeNode(value = "managers", subgraph = "user"),
+    @NamedAttributeNode(value = "employees", subgraph = "user"),
+    @NamedAttributeNode(value = "interviewQuestions", subgraph = "question"),
+    @NamedAttributeNode(value = "interviewTemplate", subgraph = "template")
+}, subgraphs = {
+    @NamedSubgraph(name = "user", attributeNodes = {
+        @NamedAttributeNode("person"),
+        @NamedAttributeNode("roles")
+    }),
+    @NamedSubgraph(name = "question", attributeNodes = {
+        @NamedAttributeNode(value = "interviewQuestionAnswers", subgraph = "answer")
+    }),
+    @NamedSubgraph(name = "answer", attributeNodes = {
+        @NamedAttributeNode(value = "user", subgraph = "user")
+    }),
+    @NamedSubgraph(name = "template", attributeNodes = {
+        @NamedAttributeNode("interviewQuestionTemplates")
+    })
+})
 @NamedQueries({
     @NamedQuery(name = "Interview.getByCompany", query = "SELECT i FROM Interview i WHERE i.deleted = null AND i.company.id = :company"),
     @NamedQuery(name = "Interview.getByManager", query = "SELECT i FROM Interview i JOIN i.managers m WHERE i.deleted = null AND m.id = :manager"),
-    @NamedQuery(name = "Interview.getByEmployee", query = "SELECT i FROM Interview i JOIN i.employees e WHERE i.deleted = null AND e.id = :employee")
+    @NamedQuery(name = "Interview.getByEmployee", query = "SELECT i FROM Interview i JOIN i.employees e WHERE i.deleted = null AND e.id = :employee"),
+    @NamedQuery(name = "Interview.getUpcomingByCompany", query = "SELECT i FROM Interview i WHERE i.deleted = null AND i.company.id = :company AND i.held > :bound AND (i.held > :held OR (i.held = :held AND i.id > :id)) ORDER BY i.held ASC, i.id ASC"),
+    @NamedQuery(name = "Interview.getPreviousByCompany", query = "SELECT i FROM Interview i WHERE i.deleted = null AND i.company.id = :company AND i.held < :bound AND (i.held < :held OR (i.held = :held AND i.id < :id)) ORDER BY i.held DESC, i.id DESC"),
+    @NamedQuery(name = "Interview.getDeletedIds", query = "SELECT i.id FROM Interview i WHERE i.deleted IS NOT NULL ORDER BY i.deleted ASC"),
+    @NamedQuery(name = "Interview.getIdsHeldBefore", query = "SELECT i.id FROM Interview i WHERE i.held < :held ORDER BY i.held ASC")
 })
 public class Interview implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    @Version
+    @Column(name = "version")
+    private long version;
     private LocalDateTime created;
     private LocalDateTime deleted;
     private LocalDateTime held;
@@ -56,7 +99,7 @@ public class Interview implements Serializable {
     private InterviewTemplate interviewTemplate;
 
     public Interview(InterviewTemplate interviewTemplate, LocalDateTime held) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         created = LocalDateTime.now();
         this.held = held;
 
@@ -65,19 +108,40 @@ public class Interview implements Serializable {
         interviewQuestions = new ArrayList<>();
 
         interviewTemplate.getInterviewQuestionTemplates().forEach(interviewQuestionTemplate -> {
-            interviewQuestions.add(new InterviewQuestion(interviewQuestionTemplate));
+            addInterviewQuestion(new InterviewQuestion(interviewQuestionTemplate));
         });
 
         this.interviewTemplate = interviewTemplate;
         interviewTemplate.addTemplate(this);
     }
 
+    /**
+     * Recreates an archived interview under its original id. Questions are
+     * added by the caller.
+     */
+    public Interview(UUID id, InterviewTemplate interviewTemplate, LocalDateTime created, LocalDateTime held) {
+        this.id = id;
+        this.created = created;
+        this.held = held;
+
+        managers = new ArrayList<>();
+        employees = new ArrayList<>();
+        interviewQuestions = new ArrayList<>();
+
+        this.interviewTemplate = interviewTemplate;
+        interviewTemplate.addTemplate(this);
+    }
+
     public Interview() {
 
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public LocalDateTime getCreated() {
@@ -0,0 +1,117 @@
+package entities;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.UUIDBinaryConverter;
+
+/**
+ * An interview moved out of the live tables. The interview, its questions
+ * and answers are kept as one gzip compressed JSON document, under the id the
+ * interview had.
+ *
+ * @author Nicklas Nielsen
+ */
+@Entity
+@Table(name = "interview_archives", indexes = {
+    @Index(name = "idx_interview_archives_company", columnList = "company_id, id")
+})
+@NamedQueries({
+    @NamedQuery(name = "InterviewArchive.getPageByCompany", query = "SELECT a FROM InterviewArchive a WHERE a.companyId = :company AND a.id > :id ORDER BY a.id ASC")
+})
+public class InterviewArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    // Not a foreign key, the archive outlives the company
+    @Column(name = "company_id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID companyId;
+
+    private LocalDateTime held;
+    private LocalDateTime deleted;
+    private LocalDateTime archived;
+
+    @Lob
+    @Column(name = "data", columnDefinition = "LONGBLOB", nullable = false)
+    private byte[] data;
+
+    public InterviewArchive(Interview interview, byte[] data) {
+        id = interview.getId();
+
+        if (interview.getCompany() != null) {
+            companyId = interview.getCompany().getId();
+        }
+
+        held = interview.getHeld();
+        deleted = interview.getDeleted();
+        archived = LocalDateTime.now();
+        this.data = data;
+    }
+
+    public InterviewArchive() {
+
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public LocalDateTime getHeld() {
+        return held;
+    }
+
+    public LocalDateTime getDeleted() {
+        return deleted;
+    }
+
+    public LocalDateTime getArchived() {
+        return archived;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 53 * hash + Objects.hashCode(this.id);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final InterviewArchive other = (InterviewArchive) obj;
+        return Objects.equals(this.id, other.id);
+    }
+
+}
@@ -6,11 +6,18 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -18,14 +25,27 @@ import javax.persistence.Table;
  */
 @Entity
 @Table(name = "interview_questions")
+@NamedQueries({
+    @NamedQuery(name = "InterviewQuestion.markAnswered", query = "UPDATE InterviewQuestion q SET q.answered = TRUE WHERE q.id IN :ids AND q.answered = FALSE")
+})
 public class InterviewQuestion implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    @Version
+    @Column(name = "version")
+    private long version;
     private String question;
 
+    // Set once anyone has answered, only ever changed by InterviewQuestion.markAnswered
+    @Column(name = "answered", nullable = false, updatable = false)
+    private boolean answered;
+
     @OneToMany(mappedBy = "interviewQuestion", cascade = {CascadeType.REMOVE, CascadeType.PERSIST}, orphanRemoval = true)
     private List<InterviewQuestionAnswer> interviewQuestionAnswers;
 
@@ -33,17 +53,27 @@ public class InterviewQuestion implements Serializable {
     private Interview interview;
 
     public InterviewQuestion(InterviewQuestionTemplate interviewQuestionTemplate) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         question = interviewQuestionTemplate.getQuestion();
         interviewQuestionAnswers = new ArrayList<>();
     }
 
+    public InterviewQuestion(UUID id, String question) {
+        this.id = id;
+        this.question = question;
+        interviewQuestionAnswers = new ArrayList<>();
+    }
+
     public InterviewQuestion() {
 
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public String getQuestion() {
@@ -54,6 +84,14 @@ public class InterviewQuestion implements Serializable {
         this.question = question;
     }
 
+    public boolean isAnswered() {
+        return answered;
+    }
+
+    public void setAnswered(boolean answered) {
+        this.answered = answered;
+    }
+
     public List<InterviewQuestionAnswer> getInterviewQuestionAnswers() {
         return interviewQuestionAnswers;
     }
@@ -86,7 +124,11 @@ public class InterviewQuestion implements Serializable {
         hash = 41 * hash + Objects.hashCode(this.id);
         hash = 41 * hash + Objects.hashCode(this.question);
         hash = 41 * hash + Objects.hashCode(this.interviewQuestionAnswers);
-        hash = 41 * hash + Objects.hashCode(this.interview);
+
+        if (this.interview != null) {
+            hash = 41 * hash + Objects.hashCode(this.interview.getId());
+        }
+
         return hash;
     }
 
@@ -114,7 +156,11 @@ public class InterviewQuestion implements Serializable {
         if (!this.interviewQuestionAnswers.stream().noneMatch(answer -> (!other.interviewQuestionAnswers.contains(answer)))) {
             return false;
         }
-        return Objects.equals(this.interview, other.interview);
+        if (this.interview != null && other.interview != null) {
+            return Objects.equals(this.interview.getId(), other.interview.getId());
+        }
+
+        return this.interview == other.interview;
     }
 
 }
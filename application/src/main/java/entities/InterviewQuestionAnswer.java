@@ -3,23 +3,42 @@ package entities;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import javax.persistence.Version;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
  * @author Nicklas Nielsen
  */
 @Entity
-@Table(name = "interview_question_answers")
+@Table(name = "interview_question_answers", indexes = {
+    @Index(name = "idx_interview_question_answers_user_question", columnList = "USER_ID, INTERVIEWQUESTION_ID")
+})
+@NamedQueries({
+    @NamedQuery(name = "InterviewQuestionAnswer.getByInterviewAndUser", query = "SELECT a FROM InterviewQuestionAnswer a WHERE a.user.id = :user AND a.interviewQuestion.interview.id = :interview")
+})
 public class InterviewQuestionAnswer implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    @Version
+    @Column(name = "version")
+    private long version;
 
     @ManyToOne
     private InterviewQuestion interviewQuestion;
@@ -29,11 +48,19 @@ public class InterviewQuestionAnswer implements Serializable {
     private String answer;
 
     public InterviewQuestionAnswer() {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
+    }
+
+    public InterviewQuestionAnswer(UUID id) {
+        this.id = id;
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public InterviewQuestion getInterviewQuestion() {
@@ -64,9 +91,13 @@ public class InterviewQuestionAnswer implements Serializable {
     public int hashCode() {
         int hash = 3;
         hash = 29 * hash + Objects.hashCode(this.id);
-        hash = 29 * hash + Objects.hashCode(this.interviewQuestion);
         hash = 29 * hash + Objects.hashCode(this.user);
         hash = 29 * hash + Objects.hashCode(this.answer);
+
+        if (this.interviewQuestion != null) {
+            hash = 29 * hash + Objects.hashCode(this.interviewQuestion.getId());
+        }
+
         return hash;
     }
 
@@ -88,10 +119,14 @@ public class InterviewQuestionAnswer implements Serializable {
         if (!Objects.equals(this.answer, other.answer)) {
             return false;
         }
-        if (!Objects.equals(this.interviewQuestion, other.interviewQuestion)) {
+        if (!Objects.equals(this.user, other.user)) {
             return false;
         }
-        return Objects.equals(this.user, other.user);
+        if (this.interviewQuestion != null && other.interviewQuestion != null) {
+            return Objects.equals(this.interviewQuestion.getId(), other.interviewQuestion.getId());
+        }
+
+        return this.interviewQuestion == other.interviewQuestion;
     }
 
 }
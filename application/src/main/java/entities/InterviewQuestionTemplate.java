@@ -5,12 +5,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -26,7 +30,9 @@ public class InterviewQuestionTemplate implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
     private String name;
     private String question;
 
@@ -34,7 +40,7 @@ public class InterviewQuestionTemplate implements Serializable {
     private List<InterviewTemplate> interviewTemplates;
 
     public InterviewQuestionTemplate(String name, String question) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.name = name;
         this.question = question;
         interviewTemplates = new ArrayList<>();
@@ -45,7 +51,7 @@ public class InterviewQuestionTemplate implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public String getName() {
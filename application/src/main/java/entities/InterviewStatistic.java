@@ -0,0 +1,128 @@
+package entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import org.eclipse.persistence.annotations.Convert;
+import utils.UUIDBinaryConverter;
+
+/**
+ * Running totals of the interviews of one company, held in one month, from
+ * one template. Rows are only ever changed by adding to the counters, see
+ * InterviewStatisticFacade. The counters are written with native statements,
+ * so rows are kept out of the shared cache.
+ *
+ * @author Nicklas Nielsen
+ */
+@Cacheable(false)
+@Entity
+@Table(name = "interview_statistics", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_interview_statistics_company_month_template", columnNames = {"company_id", "month", "interviewtemplate_id"})
+})
+@NamedQueries({
+    @NamedQuery(name = "InterviewStatistic.getByCompany", query = "SELECT s FROM InterviewStatistic s WHERE s.companyId = :company AND s.month >= :from AND s.month <= :to ORDER BY s.month ASC, s.interviewTemplate.name ASC")
+})
+public class InterviewStatistic implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    // Not a foreign key, like the archive the totals outlive the company
+    @Column(name = "company_id", columnDefinition = "BINARY(16)", nullable = false)
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID companyId;
+
+    // First day of the month
+    @Column(name = "month", nullable = false)
+    private LocalDate month;
+
+    @ManyToOne
+    @JoinColumn(name = "interviewtemplate_id", nullable = false)
+    private InterviewTemplate interviewTemplate;
+
+    @Column(name = "interviews", nullable = false)
+    private long interviews;
+
+    @Column(name = "completed", nullable = false)
+    private long completed;
+
+    @Column(name = "questions", nullable = false)
+    private long questions;
+
+    @Column(name = "answered_questions", nullable = false)
+    private long answeredQuestions;
+
+    public InterviewStatistic() {
+
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public InterviewTemplate getInterviewTemplate() {
+        return interviewTemplate;
+    }
+
+    public long getInterviews() {
+        return interviews;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getQuestions() {
+        return questions;
+    }
+
+    public long getAnsweredQuestions() {
+        return answeredQuestions;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 41 * hash + Objects.hashCode(this.id);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final InterviewStatistic other = (InterviewStatistic) obj;
+        return Objects.equals(this.id, other.id);
+    }
+
+}
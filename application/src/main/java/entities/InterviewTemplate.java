@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
@@ -15,6 +16,9 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
@@ -30,7 +34,9 @@ public class InterviewTemplate implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
     private String name;
     private int amountOfManagersAllowed;
     private int amountOfEmployeesAllowed;
@@ -46,7 +52,7 @@ public class InterviewTemplate implements Serializable {
     private List<InterviewQuestionTemplate> interviewQuestionTemplates;
 
     public InterviewTemplate(String name, int amountOfManagersAllowed, int amountOfEmployeesAllowed) {
-        id = UUID.randomUUID().toString();
+        id = TimeOrderedUUID.generate();
         this.name = name;
         this.amountOfManagersAllowed = amountOfManagersAllowed;
         this.amountOfEmployeesAllowed = amountOfEmployeesAllowed;
@@ -61,7 +67,7 @@ public class InterviewTemplate implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public String getName() {
@@ -0,0 +1,161 @@
+package entities;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
+
+/**
+ * One interview as it is shown in the interview lists of one participant.
+ *
+ * The entries are a read model, copied from the interview whenever it
+ * changes (see InterviewTimelineFacade), so a list page is read from this
+ * table alone. The answer counts are written with bulk updates, so entries
+ * are kept out of the shared cache.
+ *
+ * @author Nicklas Nielsen
+ */
+@Cacheable(false)
+@Entity
+@Table(name = "interview_timeline", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_interview_timeline_interview_user_role", columnNames = {"interview_id", "user_id", "role"})
+}, indexes = {
+    @Index(name = "idx_interview_timeline_user_role_held", columnList = "user_id, role, held, interview_id")
+})
+@NamedQueries({
+    @NamedQuery(name = "InterviewTimelineEntry.getUpcomingByEmployee", query = "SELECT t FROM InterviewTimelineEntry t WHERE t.userId = :user AND t.role = 'EMPLOYEE' AND t.held > :bound AND (t.held > :held OR (t.held = :held AND t.interviewId > :id)) ORDER BY t.held ASC, t.interviewId ASC"),
+    @NamedQuery(name = "InterviewTimelineEntry.getPreviousByEmployee", query = "SELECT t FROM InterviewTimelineEntry t WHERE t.userId = :user AND t.role = 'EMPLOYEE' AND t.held < :bound AND (t.held < :held OR (t.held = :held AND t.interviewId < :id)) ORDER BY t.held DESC, t.interviewId DESC"),
+    @NamedQuery(name = "InterviewTimelineEntry.getUpcomingByManager", query = "SELECT t FROM InterviewTimelineEntry t WHERE t.userId = :user AND t.role = 'MANAGER' AND t.held > :bound AND (t.held > :held OR (t.held = :held AND t.interviewId > :id)) ORDER BY t.held ASC, t.interviewId ASC"),
+    @NamedQuery(name = "InterviewTimelineEntry.getPreviousByManager", query = "SELECT t FROM InterviewTimelineEntry t WHERE t.userId = :user AND t.role = 'MANAGER' AND t.held < :bound AND (t.held < :held OR (t.held = :held AND t.interviewId < :id)) ORDER BY t.held DESC, t.interviewId DESC"),
+    @NamedQuery(name = "InterviewTimelineEntry.deleteByInterview", query = "DELETE FROM InterviewTimelineEntry t WHERE t.interviewId = :interview"),
+    @NamedQuery(name = "InterviewTimelineEntry.addAnswered", query = "UPDATE InterviewTimelineEntry t SET t.answered = t.answered + :answered WHERE t.interviewId = :interview AND t.userId = :user"),
+    @NamedQuery(name = "InterviewTimelineEntry.getInterviewIdsMissing", query = "SELECT i.id FROM Interview i WHERE i.deleted = null AND i.id > :id AND NOT EXISTS (SELECT t FROM InterviewTimelineEntry t WHERE t.interviewId = i.id) ORDER BY i.id ASC")
+})
+public class InterviewTimelineEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String MANAGER = "MANAGER";
+    public static final String EMPLOYEE = "EMPLOYEE";
+
+    @Id
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
+
+    @Column(name = "user_id", columnDefinition = "BINARY(16)", nullable = false)
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID userId;
+
+    @Column(name = "interview_id", columnDefinition = "BINARY(16)", nullable = false)
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID interviewId;
+
+    // MANAGER or EMPLOYEE, the part the user has in the interview
+    @Column(name = "role", length = 16, nullable = false)
+    private String role;
+
+    @Column(name = "held")
+    private LocalDateTime held;
+
+    @Column(name = "template_name")
+    private String templateName;
+
+    // Full names of the participants on the other side, comma separated
+    @Column(name = "counterparts", length = 1000)
+    private String counterparts;
+
+    // Questions the user has answered
+    @Column(name = "answered", nullable = false)
+    private int answered;
+
+    @Column(name = "questions", nullable = false)
+    private int questions;
+
+    public InterviewTimelineEntry(UUID userId, Interview interview, String role, String counterparts, int answered) {
+        id = TimeOrderedUUID.generate();
+        this.userId = userId;
+        interviewId = interview.getId();
+        this.role = role;
+        held = interview.getHeld();
+        templateName = interview.getInterviewTemplate().getName();
+        this.counterparts = counterparts;
+        this.answered = answered;
+        questions = interview.getInterviewQuestions().size();
+    }
+
+    public InterviewTimelineEntry() {
+
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getInterviewId() {
+        return interviewId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public LocalDateTime getHeld() {
+        return held;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public String getCounterparts() {
+        return counterparts;
+    }
+
+    public int getAnswered() {
+        return answered;
+    }
+
+    public int getQuestions() {
+        return questions;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 67 * hash + Objects.hashCode(this.id);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final InterviewTimelineEntry other = (InterviewTimelineEntry) obj;
+        return Objects.equals(this.id, other.id);
+    }
+
+}
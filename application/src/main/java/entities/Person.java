@@ -1,41 +1,46 @@
 package entities;
 
 import java.io.Serializable;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
  * @author Nicklas Nielsen
  */
 @Entity
-@Table(name = "persons")
+@Table(name = "persons", indexes = {
+    @Index(name = "idx_persons_normalized_firstname", columnList = "normalized_firstname"),
+    @Index(name = "idx_persons_normalized_middlename", columnList = "normalized_middlename"),
+    @Index(name = "idx_persons_normalized_lastname", columnList = "normalized_lastname, normalized_firstname")
+})
 @NamedQueries({
     @NamedQuery(name = "Person.deleteAllRows", query = "DELETE FROM Person"),
     @NamedQuery(name = "Person.getAll", query = "SELECT p FROM Person p"),
-    @NamedQuery(name = "Person.getByUser", query = "SELECT p FROM Person p WHERE p.user.id = :user_id"),
-    @NamedQuery(name = "Person.getByFirstname", query = "SELECT p FROM Person p WHERE UPPER(p.firstname) = :firstname"),
-    @NamedQuery(name = "Person.getByFirstnameAndMiddlename", query = "SELECT p FROM Person p WHERE UPPER(p.firstname) = :firstname AND UPPER(p.middlename) = :middlename"),
-    @NamedQuery(name = "Person.getByFirstnameAndLastname", query = "SELECT p FROM Person p WHERE UPPER(p.firstname) = :firstname AND UPPER(p.lastname) = :lastname"),
-    @NamedQuery(name = "Person.getByFullname", query = "SELECT p FROM Person p WHERE UPPER(p.firstname) = :firstname AND UPPER(p.middlename) = :middlename AND UPPER(p.lastname) = :lastname"),
-    @NamedQuery(name = "Person.getByMiddlename", query = "SELECT p FROM Person p WHERE UPPER(p.middlename) = :middlename"),
-    @NamedQuery(name = "Person.getByMiddlenameAndLastname", query = "SELECT p FROM Person p WHERE UPPER(p.middlename) = :middlename AND UPPER(p.lastname) = :lastname"),
-    @NamedQuery(name = "Person.getByLastname", query = "SELECT p FROM Person p WHERE UPPER(p.lastname) = :lastname")
+    @NamedQuery(name = "Person.getDTOs", query = "SELECT NEW dtos.PersonDTO(p.id, p.firstname, p.middlename, p.lastname) FROM Person p"),
+    @NamedQuery(name = "Person.getPage", query = "SELECT p FROM Person p WHERE p.id > :id ORDER BY p.id ASC"),
+    @NamedQuery(name = "Person.getByUser", query = "SELECT p FROM Person p WHERE p.user.id = :user_id")
 })
 public class Person implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
 
     @Column(name = "firstname")
     private String firstname;
@@ -46,14 +51,24 @@ public class Person implements Serializable {
     @Column(name = "lastname")
     private String lastname;
 
+    // Case-folded copies of the names, kept in sync by the setters and used by name searches
+    @Column(name = "normalized_firstname")
+    private String normalizedFirstname;
+
+    @Column(name = "normalized_middlename")
+    private String normalizedMiddlename;
+
+    @Column(name = "normalized_lastname")
+    private String normalizedLastname;
+
     @OneToOne(mappedBy = "person")
     private User user;
 
     public Person(String firstname, String middlename, String lastname) {
-        id = UUID.randomUUID().toString();
-        this.firstname = firstname;
-        this.middlename = middlename;
-        this.lastname = lastname;
+        id = TimeOrderedUUID.generate();
+        setFirstname(firstname);
+        setMiddlename(middlename);
+        setLastname(lastname);
     }
 
     public Person() {
@@ -61,7 +76,7 @@ public class Person implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public String getFirstname() {
@@ -70,6 +85,7 @@ public class Person implements Serializable {
 
     public void setFirstname(String firstname) {
         this.firstname = firstname;
+        this.normalizedFirstname = normalizeName(firstname);
     }
 
     public String getMiddlename() {
@@ -78,6 +94,7 @@ public class Person implements Serializable {
 
     public void setMiddlename(String middlename) {
         this.middlename = middlename;
+        this.normalizedMiddlename = normalizeName(middlename);
     }
 
     public String getLastname() {
@@ -86,6 +103,22 @@ public class Person implements Serializable {
 
     public void setLastname(String lastname) {
         this.lastname = lastname;
+        this.normalizedLastname = normalizeName(lastname);
+    }
+
+    /**
+     * Case-folds a name the same way it is stored in the normalized name
+     * columns, so searches can use their indexes directly.
+     *
+     * @param name Name to normalize
+     * @return Normalized name, or null when the name is null
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        return name.trim().toLowerCase(Locale.ROOT);
     }
 
     public String getFullname() {
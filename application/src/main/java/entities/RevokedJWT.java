@@ -6,6 +6,7 @@ import java.util.Objects;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
@@ -15,9 +16,14 @@ import javax.persistence.Table;
  * @author Nicklas Nielsen
  */
 @Entity
-@Table(name = "revoked_jwts")
+@Table(name = "revoked_jwts", indexes = {
+    @Index(name = "idx_revoked_jwts_expire", columnList = "expire")
+})
 @NamedQueries({
-    @NamedQuery(name = "RevokedJWT.deleteAllRows", query = "DELETE FROM RevokedJWT")
+    @NamedQuery(name = "RevokedJWT.deleteAllRows", query = "DELETE FROM RevokedJWT"),
+    @NamedQuery(name = "RevokedJWT.getUnexpired", query = "SELECT r FROM RevokedJWT r WHERE r.expire > :now"),
+    @NamedQuery(name = "RevokedJWT.getExpiredIds", query = "SELECT r.id FROM RevokedJWT r WHERE r.expire <= :now"),
+    @NamedQuery(name = "RevokedJWT.deleteByIds", query = "DELETE FROM RevokedJWT r WHERE r.id IN :ids")
 })
 public class RevokedJWT implements Serializable {
 
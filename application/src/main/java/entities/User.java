@@ -4,12 +4,14 @@ import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -18,29 +20,52 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.OrderBy;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.Convert;
+import org.eclipse.persistence.annotations.Converter;
 import org.mindrot.jbcrypt.BCrypt;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
 
 /**
  *
  * @author Nicklas Nielsen
  */
 @Entity
-@Table(name = "users")
+// Converters are shared by the whole persistence unit, the UUID converter is registered here once
+@Converter(name = UUIDBinaryConverter.NAME, converterClass = UUIDBinaryConverter.class)
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_normalized_email", columnList = "normalized_email", unique = true),
+    @Index(name = "idx_users_recovery_code_expiration", columnList = "recovery_code_expiration")
+})
 @NamedQueries({
     @NamedQuery(name = "User.deleteAllRows", query = "DELETE FROM User"),
     @NamedQuery(name = "User.getAll", query = "SELECT u FROM User u"),
-    @NamedQuery(name = "User.getByEmail", query = "SELECT u FROM User u WHERE UPPER(u.email) = :email"),
+    @NamedQuery(name = "User.getPage", query = "SELECT u FROM User u WHERE u.id > :id ORDER BY u.id ASC"),
+    @NamedQuery(name = "User.getByIds", query = "SELECT u FROM User u WHERE u.id IN :ids"),
+    @NamedQuery(name = "User.getByEmail", query = "SELECT u FROM User u WHERE u.normalizedEmail = :email"),
     @NamedQuery(name = "User.getByRoleAndCompany", query = "SELECT u FROM User u JOIN u.roles r JOIN u.company c WHERE u.deleted = null AND r.type = :role AND c.id = :company"),
-    @NamedQuery(name = "User.getByManager", query = "SELECT u FROM User u JOIN u.managers m WHERE m.id = :manager")
+    @NamedQuery(name = "User.getByManager", query = "SELECT u FROM User u JOIN u.managers m WHERE m.id = :manager"),
+    @NamedQuery(name = "User.getDTOs", query = "SELECT NEW dtos.UserDTO(u.id, u.email, p.id, p.firstname, p.middlename, p.lastname) FROM User u LEFT JOIN u.person p"),
+    @NamedQuery(name = "User.getDTOsByRoleAndCompany", query = "SELECT NEW dtos.UserDTO(u.id, u.email, p.id, p.firstname, p.middlename, p.lastname) FROM User u LEFT JOIN u.person p JOIN u.roles r WHERE u.deleted = null AND r.type = :role AND u.company.id = :company"),
+    @NamedQuery(name = "User.getDTOsByManager", query = "SELECT NEW dtos.UserDTO(u.id, u.email, p.id, p.firstname, p.middlename, p.lastname) FROM User u LEFT JOIN u.person p JOIN u.managers m WHERE m.id = :manager"),
+    @NamedQuery(name = "User.getDashboardByManager", query = "SELECT NEW dtos.EmployeeDashboardDTO(u.id, p.id, p.firstname, p.middlename, p.lastname) FROM User u LEFT JOIN u.person p JOIN u.managers m WHERE u.deleted = null AND m.id = :manager"),
+    @NamedQuery(name = "User.getUpcomingInterviewStatsByManager", query = "SELECT u.id, MIN(i.held), COUNT(i) FROM User u JOIN u.managers m JOIN u.employeeInterviews i WHERE u.deleted = null AND m.id = :manager AND i.deleted = null AND i.held > :bound GROUP BY u.id"),
+    @NamedQuery(name = "User.getPreviousInterviewStatsByManager", query = "SELECT u.id, MAX(i.held), COUNT(i) FROM User u JOIN u.managers m JOIN u.employeeInterviews i WHERE u.deleted = null AND m.id = :manager AND i.deleted = null AND i.held < :bound GROUP BY u.id"),
+    @NamedQuery(name = "User.getUnansweredQuestionCountsByManager", query = "SELECT u.id, COUNT(q) FROM User u JOIN u.managers m JOIN u.employeeInterviews i JOIN i.interviewQuestions q WHERE u.deleted = null AND m.id = :manager AND i.deleted = null AND NOT EXISTS (SELECT a FROM InterviewQuestionAnswer a WHERE a.interviewQuestion = q AND a.user = u) GROUP BY u.id"),
+    @NamedQuery(name = "User.getIdsWithExpiredRecoveryCode", query = "SELECT u.id FROM User u WHERE u.recoveryCodeExpiration < :now"),
+    @NamedQuery(name = "User.clearRecoveryCodes", query = "UPDATE User u SET u.recoveryCode = NULL, u.recoveryCodeExpiration = NULL WHERE u.id IN :ids AND u.recoveryCodeExpiration < :now"),
+    @NamedQuery(name = "User.getRolesByIds", query = "SELECT u.id, r.type, r.isDefault FROM User u JOIN u.roles r WHERE u.id IN :ids ORDER BY r.type ASC")
 })
 public class User implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Column(name = "id", columnDefinition = "BINARY(16)")
+    @Convert(UUIDBinaryConverter.NAME)
+    private UUID id;
 
     @ManyToOne
     private Company company;
@@ -57,11 +82,16 @@ public class User implements Serializable {
         @JoinColumn(name = "fk_user", referencedColumnName = "id")}, inverseJoinColumns = {
         @JoinColumn(name = "fk_role", referencedColumnName = "id")
     })
+    @OrderBy("type ASC")
     private List<Role> roles;
 
     @Column(name = "email", nullable = false)
     private String email;
 
+    // Case-folded copy of the email, kept in sync by setEmail and used for lookups
+    @Column(name = "normalized_email", nullable = false, length = 320)
+    private String normalizedEmail;
+
     @Column(name = "password", nullable = false)
     private String hashedPassword;
 
@@ -94,6 +124,8 @@ public class User implements Serializable {
     @JoinTable(name = "lk_managers_employees", joinColumns = {
         @JoinColumn(name = "fk_employee", referencedColumnName = "id")}, inverseJoinColumns = {
         @JoinColumn(name = "fk_manager", referencedColumnName = "id")
+    }, indexes = {
+        @Index(name = "idx_lk_managers_employees_manager", columnList = "fk_manager")
     })
     private List<User> employees;
 
@@ -104,6 +136,8 @@ public class User implements Serializable {
     @JoinTable(name = "lk_managers_interviews", joinColumns = {
         @JoinColumn(name = "fk_manager", referencedColumnName = "id")}, inverseJoinColumns = {
         @JoinColumn(name = "fk_interview", referencedColumnName = "id")
+    }, indexes = {
+        @Index(name = "idx_lk_managers_interviews_interview", columnList = "fk_interview")
     })
     private List<Interview> managerInterviews;
 
@@ -111,12 +145,14 @@ public class User implements Serializable {
     @JoinTable(name = "lk_empployees_interviews", joinColumns = {
         @JoinColumn(name = "fk_employee", referencedColumnName = "id")}, inverseJoinColumns = {
         @JoinColumn(name = "fk_interview", referencedColumnName = "id")
+    }, indexes = {
+        @Index(name = "idx_lk_empployees_interviews_interview", columnList = "fk_interview")
     })
     private List<Interview> employeeInterviews;
 
     public User(String email, String password) {
-        id = UUID.randomUUID().toString();
-        this.email = email;
+        id = TimeOrderedUUID.generate();
+        setEmail(email);
         this.hashedPassword = hashPassword(password);
 
         roles = new ArrayList<>();
@@ -141,7 +177,7 @@ public class User implements Serializable {
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     public Company getCompany() {
@@ -192,6 +228,22 @@ public class User implements Serializable {
 
     public void setEmail(String email) {
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+
+    /**
+     * Case-folds an email the same way it is stored in the normalized_email
+     * column, so lookups can use the unique index directly.
+     *
+     * @param email Email to normalize
+     * @return Normalized email, or null when the email is null
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 
     public boolean verifyPassword(String password) {
@@ -0,0 +1,43 @@
+package errorhandling.exceptions;
+
+import dtos.InterviewDTO;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Thrown when an interview was changed by someone else since the client read
+ * it. Carries the current state, so the client can merge and try again.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewConflictException extends Exception {
+
+    private final InterviewDTO interview;
+    private final boolean summary;
+    private final List<UUID> questions;
+
+    public InterviewConflictException(InterviewDTO interview, boolean summary, List<UUID> questions) {
+        this.interview = interview;
+        this.summary = summary;
+        this.questions = questions;
+    }
+
+    public InterviewDTO getInterview() {
+        return interview;
+    }
+
+    /**
+     * @return Whether the summary was changed by someone else
+     */
+    public boolean isSummary() {
+        return summary;
+    }
+
+    /**
+     * @return Ids of the questions whose answer was changed by someone else
+     */
+    public List<UUID> getQuestions() {
+        return questions;
+    }
+
+}
@@ -0,0 +1,43 @@
+package errorhandling.mappers;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import errorhandling.exceptions.InterviewConflictException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+@Provider
+public class InterviewConflictExceptionMapper implements ExceptionMapper<InterviewConflictException> {
+
+    private final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @Override
+    public Response toResponse(InterviewConflictException exception) {
+        Status status = Status.CONFLICT;
+        String message = "Samtalen er blevet ændret af en anden. Gennemse ændringerne og gem igen.";
+
+        JsonObject conflicts = new JsonObject();
+        conflicts.addProperty("summary", exception.isSummary());
+        conflicts.add("questions", GSON.toJsonTree(exception.getQuestions()));
+
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("status", status.getStatusCode());
+        jsonObject.addProperty("message", message);
+        jsonObject.add("conflicts", conflicts);
+        jsonObject.add("interview", GSON.toJsonTree(exception.getInterview()));
+
+        return Response.status(status)
+                .entity(GSON.toJson(jsonObject))
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import utils.Email;
+import utils.RequestEntityManager;
 import static utils.sanitizer.User.sanitizePassword;
 
 /**
@@ -42,7 +43,7 @@ public class AuthFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
     }
 
     public User login(String email, String password) throws SanitizationException, AuthenticationException {
@@ -117,6 +118,8 @@ public class AuthFacade {
                 }
 
                 throw new DatabaseException();
+            } finally {
+                em.close();
             }
         } catch (UserNotFoundException e) {
             throw new AccountRecoveryException();
@@ -1,19 +1,30 @@
 package facades;
 
 import dtos.CompanyDTO;
+import dtos.CompanyStatusDTO;
 import dtos.UserDTO;
 import entities.Company;
+import entities.CompanyStatus;
 import entities.User;
 import errorhandling.exceptions.CompanyNotFoundException;
 import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.SanitizationException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import utils.Cursor;
 import utils.Email;
+import utils.JsonExport;
+import utils.RequestEntityManager;
 import static utils.sanitizer.Company.sanitizeCvr;
 import static utils.sanitizer.Company.sanitizeName;
 import static utils.sanitizer.User.sanitizeEmail;
@@ -26,6 +37,7 @@ public class CompanyFacade {
 
     private static EntityManagerFactory emf = null;
     private static CompanyFacade instance = null;
+    private static UserFacade userFacade = null;
 
     private CompanyFacade() {
         // private to ensure singleton
@@ -35,17 +47,26 @@ public class CompanyFacade {
         if (instance == null) {
             emf = _emf;
             instance = new CompanyFacade();
+            userFacade = UserFacade.getUserFacade(emf);
         }
 
         return instance;
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
+    }
+
+    private EntityManager getExportEntityManager() {
+        return RequestEntityManager.getExportEntityManager(emf);
     }
 
     public List<Company> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Company.getAll");
@@ -66,16 +87,79 @@ public class CompanyFacade {
         return dtos;
     }
 
-    public Company getById(UUID id) throws CompanyNotFoundException {
-        EntityManager em = getEntityManager();
+    public List<Company> getPage(String cursor, int limit) throws SanitizationException {
+        UUID afterId = Cursor.decodeId(cursor);
+        EntityManager em = getReadEntityManager();
 
-        Company company = em.find(Company.class, id.toString());
+        try {
+            Query query = em.createNamedQuery("Company.getPage");
+            query.setParameter("id", afterId);
+            query.setMaxResults(limit);
 
-        if (company == null) {
-            throw new CompanyNotFoundException();
+            return query.getResultList();
+        } finally {
+            em.close();
         }
+    }
+
+    public List<CompanyDTO> getPageDTOs(String cursor, int limit) throws SanitizationException {
+        List<CompanyDTO> dtos = new ArrayList<>();
 
-        return company;
+        getPage(cursor, limit).forEach(company -> {
+            dtos.add(new CompanyDTO(company));
+        });
+
+        return dtos;
+    }
+
+    /**
+     * Streams every company as a DTO, see JsonExport. The statuses of each
+     * chunk are read with one query.
+     *
+     * @param consumer Receives every company
+     */
+    public void exportDTOs(Consumer<CompanyDTO> consumer) {
+        EntityManager em = getExportEntityManager();
+
+        try {
+            JsonExport.<CompanyDTO>forEachChunk(em.createNamedQuery("Company.getDTOs"), chunk -> {
+                Map<UUID, CompanyDTO> companyDTOsById = new HashMap<>();
+                chunk.forEach(companyDTO -> {
+                    companyDTOsById.put(companyDTO.getId(), companyDTO);
+                });
+
+                if (!companyDTOsById.isEmpty()) {
+                    List<Object[]> statuses = em.createNamedQuery("CompanyStatus.getAllRelatedToCompanies", Object[].class)
+                            .setParameter("ids", new ArrayList<>(companyDTOsById.keySet()))
+                            .setHint(QueryHints.READ_ONLY, HintValues.TRUE)
+                            .getResultList();
+
+                    statuses.forEach(status -> {
+                        companyDTOsById.get((UUID) status[0]).addCompanyStatusDTO(new CompanyStatusDTO((CompanyStatus) status[1]));
+                    });
+                }
+
+                chunk.forEach(consumer);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
+    public Company getById(UUID id) throws CompanyNotFoundException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            Company company = em.find(Company.class, id);
+
+            if (company == null) {
+                throw new CompanyNotFoundException();
+            }
+
+            return company;
+        } finally {
+            em.close();
+        }
     }
 
     public CompanyDTO getDTOById(UUID id) throws CompanyNotFoundException {
@@ -87,7 +171,7 @@ public class CompanyFacade {
     public List<Company> getAllByName(String name) throws SanitizationException {
         name = sanitizeName(name);
 
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Company.getByName");
@@ -113,7 +197,7 @@ public class CompanyFacade {
     public List<Company> getAllByCvr(String cvr) throws SanitizationException {
         cvr = sanitizeCvr(cvr);
 
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Company.getByCvr");
@@ -168,7 +252,7 @@ public class CompanyFacade {
 
         try {
             em.getTransaction().begin();
-            Company company = em.find(Company.class, id.toString());
+            Company company = em.find(Company.class, id);
             em.remove(company);
             em.getTransaction().commit();
         } catch (Exception e) {
@@ -177,16 +261,18 @@ public class CompanyFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
     public List<User> getManagersByCompany(Company company) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("User.getByRoleAndCompany");
             query.setParameter("role", "MANAGER");
-            query.setParameter("company", company.getId().toString());
+            query.setParameter("company", company.getId());
 
             return query.getResultList();
         } finally {
@@ -195,22 +281,26 @@ public class CompanyFacade {
     }
 
     public List<UserDTO> getManagerDTOsByCompany(Company company) {
-        List<UserDTO> managerDTOs = new ArrayList<>();
+        EntityManager em = getReadEntityManager();
 
-        getManagersByCompany(company).forEach(manager -> {
-            managerDTOs.add(new UserDTO(manager));
-        });
+        try {
+            TypedQuery<UserDTO> query = em.createNamedQuery("User.getDTOsByRoleAndCompany", UserDTO.class);
+            query.setParameter("role", "MANAGER");
+            query.setParameter("company", company.getId());
 
-        return managerDTOs;
+            return userFacade.getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
     public List<User> getEmployeesByCompany(Company company) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("User.getByRoleAndCompany");
             query.setParameter("role", "USER");
-            query.setParameter("company", company.getId().toString());
+            query.setParameter("company", company.getId());
 
             return query.getResultList();
         } finally {
@@ -219,13 +309,17 @@ public class CompanyFacade {
     }
 
     public List<UserDTO> getEmployeeDTOsByCompany(Company company) {
-        List<UserDTO> employeeDTOs = new ArrayList<>();
+        EntityManager em = getReadEntityManager();
 
-        getEmployeesByCompany(company).forEach(employee -> {
-            employeeDTOs.add(new UserDTO(employee));
-        });
+        try {
+            TypedQuery<UserDTO> query = em.createNamedQuery("User.getDTOsByRoleAndCompany", UserDTO.class);
+            query.setParameter("role", "USER");
+            query.setParameter("company", company.getId());
 
-        return employeeDTOs;
+            return userFacade.getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
     public void inviteUser(Company company, String email) throws SanitizationException {
@@ -5,12 +5,15 @@ import entities.Company;
 import entities.CompanyStatus;
 import entities.CompanyStatusType;
 import errorhandling.exceptions.CompanyStatusNotFoundException;
+import errorhandling.exceptions.SanitizationException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import utils.Cursor;
+import utils.RequestEntityManager;
 
 /**
  *
@@ -34,12 +37,12 @@ public class CompanyStatusFacade {
         return instance;
     }
 
-    private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<CompanyStatus> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatus.getAll");
@@ -59,16 +62,45 @@ public class CompanyStatusFacade {
         return dtos;
     }
 
-    public CompanyStatus getById(UUID id) throws CompanyStatusNotFoundException {
-        EntityManager em = getEntityManager();
+    public List<CompanyStatus> getPage(String cursor, int limit) throws SanitizationException {
+        UUID afterId = Cursor.decodeId(cursor);
+        EntityManager em = getReadEntityManager();
 
-        CompanyStatus companyStatus = em.find(CompanyStatus.class, id.toString());
+        try {
+            Query query = em.createNamedQuery("CompanyStatus.getPage");
+            query.setParameter("id", afterId);
+            query.setMaxResults(limit);
 
-        if (companyStatus == null) {
-            throw new CompanyStatusNotFoundException();
+            return query.getResultList();
+        } finally {
+            em.close();
         }
+    }
+
+    public List<CompanyStatusDTO> getPageDTOs(String cursor, int limit) throws SanitizationException {
+        List<CompanyStatusDTO> dtos = new ArrayList<>();
+
+        getPage(cursor, limit).forEach(companyStatus -> {
+            dtos.add(new CompanyStatusDTO(companyStatus));
+        });
 
-        return companyStatus;
+        return dtos;
+    }
+
+    public CompanyStatus getById(UUID id) throws CompanyStatusNotFoundException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            CompanyStatus companyStatus = em.find(CompanyStatus.class, id);
+
+            if (companyStatus == null) {
+                throw new CompanyStatusNotFoundException();
+            }
+
+            return companyStatus;
+        } finally {
+            em.close();
+        }
     }
 
     public CompanyStatusDTO getDTOById(UUID id) throws CompanyStatusNotFoundException {
@@ -78,11 +110,11 @@ public class CompanyStatusFacade {
     }
 
     public List<CompanyStatus> getAllRelatedToCompany(Company company) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatus.getAllRelatedToCompany");
-            query.setParameter("id", company.getId().toString());
+            query.setParameter("id", company.getId());
 
             return query.getResultList();
         } finally {
@@ -101,7 +133,7 @@ public class CompanyStatusFacade {
     }
 
     public List<CompanyStatus> getAllByType(CompanyStatusType companyStatusType) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatus.getAllByType");
@@ -124,11 +156,11 @@ public class CompanyStatusFacade {
     }
 
     public List<CompanyStatus> getAllRelatedToCompanyByType(Company company, CompanyStatusType companyStatusType) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatus.getAllRelatedToCompanyByType");
-            query.setParameter("id", company.getId().toString());
+            query.setParameter("id", company.getId());
             query.setParameter("type", companyStatusType.getType());
 
             return query.getResultList();
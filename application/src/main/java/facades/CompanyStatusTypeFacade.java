@@ -9,12 +9,14 @@ import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.SanitizationException;
 import java.util.ArrayList;
 import java.util.List;
+import utils.RequestEntityManager;
 import static utils.sanitizer.CompanyStatusType.*;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.Query;
+import utils.ReferenceDataCache;
 
 /**
  *
@@ -39,11 +41,15 @@ public class CompanyStatusTypeFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<CompanyStatusType> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatusType.getAll");
@@ -68,7 +74,7 @@ public class CompanyStatusTypeFacade {
     public CompanyStatusType getByType(String type) throws CompanyStatusTypeNotFoundException, SanitizationException {
         type = sanitizeType(type);
 
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatusType.getByType");
@@ -88,7 +94,7 @@ public class CompanyStatusTypeFacade {
     }
 
     public CompanyStatusType getDefault() throws CompanyStatusTypeNotFoundException, DatabaseException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("CompanyStatusType.getDefault");
@@ -135,6 +141,7 @@ public class CompanyStatusTypeFacade {
 
                 em.persist(companyStatusType);
                 em.getTransaction().commit();
+                ReferenceDataCache.invalidate(emf, CompanyStatusType.class);
             } catch (Exception exx) {
                 if (em.getTransaction().isActive()) {
                     em.getTransaction().rollback();
@@ -193,12 +200,15 @@ public class CompanyStatusTypeFacade {
             }
 
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, CompanyStatusType.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
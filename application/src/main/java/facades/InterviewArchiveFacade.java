@@ -0,0 +1,394 @@
+package facades;
+
+import com.google.gson.Gson;
+import dtos.InterviewDTO;
+import dtos.InterviewQuestionAnswerDTO;
+import dtos.InterviewQuestionDTO;
+import dtos.UserDTO;
+import entities.Company;
+import entities.Interview;
+import entities.InterviewArchive;
+import entities.InterviewQuestion;
+import entities.InterviewQuestionAnswer;
+import entities.InterviewTemplate;
+import entities.User;
+import errorhandling.exceptions.CompanyNotFoundException;
+import errorhandling.exceptions.DatabaseException;
+import errorhandling.exceptions.InterviewNotFoundException;
+import errorhandling.exceptions.InterviewTemplateNotFoundException;
+import errorhandling.exceptions.SanitizationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import utils.Cursor;
+import utils.RequestEntityManager;
+import utils.UUIDBinaryConverter;
+
+/**
+ * Moves interviews out of the live tables and back.
+ *
+ * An archived interview is stored as its InterviewDTO, serialized to JSON
+ * and gzip compressed, in a single interview_archives row. The interview,
+ * its questions, answers and link table rows are removed from the live
+ * tables in the same transaction.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewArchiveFacade {
+
+    private static EntityManagerFactory emf = null;
+    private static InterviewArchiveFacade instance = null;
+    private static InterviewStatisticFacade interviewStatisticFacade = null;
+    private static InterviewTimelineFacade interviewTimelineFacade = null;
+
+    private static final int ARCHIVE_CHUNK_SIZE = 100;
+
+    private static final Gson GSON = new Gson();
+
+    private InterviewArchiveFacade() {
+        // Private to ensure singleton
+    }
+
+    public static InterviewArchiveFacade getInterviewArchiveFacade(EntityManagerFactory _emf) {
+        if (instance == null) {
+            emf = _emf;
+            instance = new InterviewArchiveFacade();
+            interviewStatisticFacade = InterviewStatisticFacade.getInterviewStatisticFacade(emf);
+            interviewTimelineFacade = InterviewTimelineFacade.getInterviewTimelineFacade(emf);
+        }
+
+        return instance;
+    }
+
+    private EntityManager getEntityManager() {
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
+    }
+
+    /**
+     * Archives every deleted interview, and every interview held before the
+     * given time, in chunks of ARCHIVE_CHUNK_SIZE per transaction.
+     *
+     * @param heldBefore Retention limit, or null to archive deleted
+     * interviews only
+     * @return Number of interviews archived
+     * @throws DatabaseException If a chunk could not be archived
+     */
+    public int archive(LocalDateTime heldBefore) throws DatabaseException {
+        int archived = 0;
+        int chunk;
+        List<UUID> ids;
+
+        do {
+            ids = getArchivableIds(heldBefore);
+            chunk = archive(ids);
+            archived += chunk;
+        } while (ids.size() == ARCHIVE_CHUNK_SIZE && chunk > 0);
+
+        return archived;
+    }
+
+    private List<UUID> getArchivableIds(LocalDateTime heldBefore) {
+        EntityManager em = getEntityManager();
+
+        try {
+            List<UUID> ids = em.createNamedQuery("Interview.getDeletedIds", UUID.class)
+                    .setMaxResults(ARCHIVE_CHUNK_SIZE)
+                    .getResultList();
+
+            if (ids.size() < ARCHIVE_CHUNK_SIZE && heldBefore != null) {
+                ids = new ArrayList<>(ids);
+                ids.addAll(em.createNamedQuery("Interview.getIdsHeldBefore", UUID.class)
+                        .setParameter("held", heldBefore)
+                        .setMaxResults(ARCHIVE_CHUNK_SIZE - ids.size())
+                        .getResultList());
+            }
+
+            return ids;
+        } finally {
+            em.close();
+        }
+    }
+
+    private int archive(List<UUID> ids) throws DatabaseException {
+        Set<UUID> userIds = new HashSet<>();
+        Set<UUID> companyIds = new HashSet<>();
+        Set<UUID> templateIds = new HashSet<>();
+        int archived = 0;
+
+        EntityManager em = getEntityManager();
+
+        try {
+            em.getTransaction().begin();
+
+            for (UUID id : ids) {
+                Interview interview = em.find(Interview.class, id);
+
+                // Listed twice when deleted and held before the limit
+                if (interview == null || em.find(InterviewArchive.class, id) != null) {
+                    continue;
+                }
+
+                InterviewDTO interviewDTO = new InterviewDTO(interview);
+                em.persist(new InterviewArchive(interview, compress(interviewDTO)));
+
+                interviewDTO.getManagers().forEach(manager -> {
+                    userIds.add(manager.getId());
+                });
+
+                interviewDTO.getEmployees().forEach(employee -> {
+                    userIds.add(employee.getId());
+                });
+
+                interviewDTO.getInterviewQuestions().forEach(question -> {
+                    question.getInterviewQuestionAnswers().forEach(answer -> {
+                        userIds.add(answer.getUserId());
+                    });
+                });
+
+                if (interview.getCompany() != null) {
+                    companyIds.add(interview.getCompany().getId());
+                }
+
+                templateIds.add(interview.getInterviewTemplate().getId());
+
+                // The link tables are owned by User, removing the interview leaves them behind
+                byte[] interviewId = UUIDBinaryConverter.toBytes(id);
+                em.createNativeQuery("DELETE FROM lk_managers_interviews WHERE fk_interview = ?")
+                        .setParameter(1, interviewId)
+                        .executeUpdate();
+                em.createNativeQuery("DELETE FROM lk_empployees_interviews WHERE fk_interview = ?")
+                        .setParameter(1, interviewId)
+                        .executeUpdate();
+                interviewTimelineFacade.remove(em, id);
+
+                em.remove(interview);
+                archived++;
+            }
+
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        // Cached collections on the other side still hold the archived interviews
+        userIds.forEach(id -> {
+            emf.getCache().evict(User.class, id);
+        });
+
+        companyIds.forEach(id -> {
+            emf.getCache().evict(Company.class, id);
+        });
+
+        templateIds.forEach(id -> {
+            emf.getCache().evict(InterviewTemplate.class, id);
+        });
+
+        return archived;
+    }
+
+    public List<InterviewDTO> getDTOsByCompany(Company company, String cursor, int limit) throws SanitizationException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            TypedQuery<InterviewArchive> query = em.createNamedQuery("InterviewArchive.getPageByCompany", InterviewArchive.class);
+            query.setParameter("company", company.getId());
+            query.setParameter("id", Cursor.decodeId(cursor));
+            query.setMaxResults(limit);
+
+            List<InterviewDTO> interviewDTOs = new ArrayList<>();
+            query.getResultList().forEach(archive -> {
+                interviewDTOs.add(decompress(archive.getData()));
+            });
+
+            return interviewDTOs;
+        } finally {
+            em.close();
+        }
+    }
+
+    public String getNextCursor(List<InterviewDTO> page, int limit) {
+        return Cursor.nextById(page, limit, InterviewDTO::getId);
+    }
+
+    public InterviewDTO getDTOById(Company company, UUID id) throws InterviewNotFoundException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            InterviewArchive archive = em.find(InterviewArchive.class, id);
+
+            if (archive == null || !company.getId().equals(archive.getCompanyId())) {
+                throw new InterviewNotFoundException();
+            }
+
+            return decompress(archive.getData());
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Moves an archived interview back into the live tables under its
+     * original id, as not deleted. Managers, employees and answers whose user
+     * no longer exists are left out.
+     *
+     * An interview held before the retention limit is archived again on the
+     * next run, those should be read through getDTOById instead.
+     *
+     * @param company Company the interview belongs to
+     * @param id Id of the interview
+     * @return The restored interview
+     */
+    public InterviewDTO restore(Company company, UUID id) throws InterviewNotFoundException, InterviewTemplateNotFoundException, CompanyNotFoundException, DatabaseException {
+        Set<UUID> userIds = new HashSet<>();
+        Interview interview;
+
+        EntityManager em = getEntityManager();
+
+        try {
+            em.getTransaction().begin();
+
+            InterviewArchive archive = em.find(InterviewArchive.class, id);
+
+            if (archive == null || !company.getId().equals(archive.getCompanyId())) {
+                throw new InterviewNotFoundException();
+            }
+
+            InterviewDTO interviewDTO = decompress(archive.getData());
+
+            InterviewTemplate template = em.find(InterviewTemplate.class, interviewDTO.getInterviewTemplate().getId());
+            if (template == null) {
+                throw new InterviewTemplateNotFoundException();
+            }
+
+            Company owner = em.find(Company.class, archive.getCompanyId());
+            if (owner == null) {
+                throw new CompanyNotFoundException();
+            }
+
+            interview = new Interview(id, template, parse(interviewDTO.getCreated()), parse(interviewDTO.getHeld()));
+            interview.setInvitationSend(parse(interviewDTO.getInvitationSend()));
+            interview.setSummary(interviewDTO.getSummary());
+            interview.setCompany(owner);
+
+            for (UserDTO managerDTO : interviewDTO.getManagers()) {
+                User manager = em.find(User.class, managerDTO.getId());
+
+                if (manager != null) {
+                    interview.addManager(manager);
+                    userIds.add(manager.getId());
+                }
+            }
+
+            for (UserDTO employeeDTO : interviewDTO.getEmployees()) {
+                User employee = em.find(User.class, employeeDTO.getId());
+
+                if (employee != null) {
+                    interview.addEmployee(employee);
+                    userIds.add(employee.getId());
+                }
+            }
+
+            for (InterviewQuestionDTO questionDTO : interviewDTO.getInterviewQuestions()) {
+                InterviewQuestion question = new InterviewQuestion(questionDTO.getId(), questionDTO.getQuestion());
+                interview.addInterviewQuestion(question);
+
+                for (InterviewQuestionAnswerDTO answerDTO : questionDTO.getInterviewQuestionAnswers()) {
+                    User user = em.find(User.class, answerDTO.getUserId());
+
+                    if (user == null) {
+                        continue;
+                    }
+
+                    InterviewQuestionAnswer answer = new InterviewQuestionAnswer(answerDTO.getId());
+                    answer.setUser(user);
+                    answer.setAnswer(answerDTO.getAnswer());
+                    question.addInterviewQuestionAnswer(answer);
+                    userIds.add(user.getId());
+                }
+
+                question.setAnswered(!question.getInterviewQuestionAnswers().isEmpty());
+            }
+
+            em.persist(interview);
+            em.remove(archive);
+            interviewTimelineFacade.add(em, interview);
+
+            // Only deleted interviews were subtracted from the statistics
+            if (archive.getDeleted() != null) {
+                interviewStatisticFacade.count(em, interview, 1);
+            }
+
+            em.getTransaction().commit();
+        } catch (InterviewNotFoundException | InterviewTemplateNotFoundException | CompanyNotFoundException e) {
+            em.getTransaction().rollback();
+
+            throw e;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        userIds.forEach(userId -> {
+            emf.getCache().evict(User.class, userId);
+        });
+
+        return new InterviewDTO(interview);
+    }
+
+    private static LocalDateTime parse(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    private static byte[] compress(InterviewDTO interviewDTO) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8)) {
+            GSON.toJson(interviewDTO, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static InterviewDTO decompress(byte[] data) {
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(data)), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, InterviewDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
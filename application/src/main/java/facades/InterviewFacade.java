@@ -1,6 +1,8 @@
 package facades;
 
 import dtos.InterviewDTO;
+import dtos.InterviewScheduleDTO;
+import dtos.InterviewScheduleResultDTO;
 import entities.Company;
 import entities.Interview;
 import entities.InterviewQuestion;
@@ -8,18 +10,34 @@ import entities.InterviewQuestionAnswer;
 import entities.InterviewTemplate;
 import entities.User;
 import errorhandling.exceptions.DatabaseException;
+import errorhandling.exceptions.InterviewConflictException;
 import errorhandling.exceptions.InterviewNotFoundException;
+import errorhandling.exceptions.SanitizationException;
+import java.net.HttpURLConnection;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.Query;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
+import utils.Cursor;
 import utils.Email;
+import utils.RequestEntityManager;
+import utils.TimeOrderedUUID;
 
 /**
  *
@@ -29,6 +47,25 @@ public class InterviewFacade {
 
     private static EntityManagerFactory emf = null;
     private static InterviewFacade instance = null;
+    private static InterviewStatisticFacade interviewStatisticFacade = null;
+    private static InterviewTimelineFacade interviewTimelineFacade = null;
+
+    private static final int SCHEDULE_CHUNK_SIZE = 100;
+
+    private static final String[] DTO_BATCH_ATTRIBUTES = {
+        "i.company",
+        "i.managers",
+        "i.managers.person",
+        "i.managers.roles",
+        "i.employees",
+        "i.employees.person",
+        "i.employees.roles",
+        "i.interviewQuestions",
+        "i.interviewQuestions.interviewQuestionAnswers",
+        "i.interviewQuestions.interviewQuestionAnswers.user",
+        "i.interviewQuestions.interviewQuestionAnswers.user.person",
+        "i.interviewTemplate.interviewQuestionTemplates"
+    };
 
     private InterviewFacade() {
         // Private to ensure singleton
@@ -38,21 +75,27 @@ public class InterviewFacade {
         if (instance == null) {
             emf = _emf;
             instance = new InterviewFacade();
+            interviewStatisticFacade = InterviewStatisticFacade.getInterviewStatisticFacade(emf);
+            interviewTimelineFacade = InterviewTimelineFacade.getInterviewTimelineFacade(emf);
         }
 
         return instance;
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<Interview> getByCompany(Company company) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Interview.getByCompany");
-            query.setParameter("company", company.getId().toString());
+            query.setParameter("company", company.getId());
 
             return query.getResultList();
         } finally {
@@ -61,63 +104,40 @@ public class InterviewFacade {
     }
 
     public List<InterviewDTO> getDTOsByCompany(Company company) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
+        EntityManager em = getReadEntityManager();
 
-        getByCompany(company).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
+        try {
+            Query query = em.createNamedQuery("Interview.getByCompany");
+            query.setParameter("company", company.getId());
 
-        return interviewDTOs;
+            return getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
-    public List<Interview> getUpcomingByCompany(Company company) {
-        List<Interview> interviews = getByCompany(company);
-        List<Interview> upcoming = new ArrayList<>();
-
-        interviews.stream().filter(interview -> (interview.getHeld().isAfter(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            upcoming.add(interview);
-        });
-
-        return upcoming;
+    public List<Interview> getUpcomingByCompany(Company company, String cursor, int limit) throws SanitizationException {
+        return getPage("Interview.getUpcomingByCompany", "company", company.getId(), cursor, limit);
     }
 
-    public List<InterviewDTO> getUpcomingDTOsByCompany(Company company) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
-
-        getUpcomingByCompany(company).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
-
-        return interviewDTOs;
+    public List<InterviewDTO> getUpcomingDTOsByCompany(Company company, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("Interview.getUpcomingByCompany", "company", company.getId(), cursor, limit);
     }
 
-    public List<Interview> getPreviousByCompany(Company company) {
-        List<Interview> interviews = getByCompany(company);
-        List<Interview> previous = new ArrayList<>();
-
-        interviews.stream().filter(interview -> (interview.getHeld().isBefore(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            previous.add(interview);
-        });
-
-        return previous;
+    public List<Interview> getPreviousByCompany(Company company, String cursor, int limit) throws SanitizationException {
+        return getPage("Interview.getPreviousByCompany", "company", company.getId(), cursor, limit);
     }
 
-    public List<InterviewDTO> getPreviousDTOsByCompany(Company company) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
-
-        getPreviousByCompany(company).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
-
-        return interviewDTOs;
+    public List<InterviewDTO> getPreviousDTOsByCompany(Company company, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("Interview.getPreviousByCompany", "company", company.getId(), cursor, limit);
     }
 
     public List<Interview> getByUser(User user) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Interview.getByEmployee");
-            query.setParameter("employee", user.getId().toString());
+            query.setParameter("employee", user.getId());
 
             return query.getResultList();
         } finally {
@@ -126,49 +146,116 @@ public class InterviewFacade {
     }
 
     public List<InterviewDTO> getDTOsByUser(User user) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
+        EntityManager em = getReadEntityManager();
 
-        getByUser(user).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
+        try {
+            Query query = em.createNamedQuery("Interview.getByEmployee");
+            query.setParameter("employee", user.getId());
 
-        return interviewDTOs;
+            return getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
-    public List<Interview> getUpcomingsByUser(User user) {
-        List<Interview> upcoming = new ArrayList<>();
+    public List<InterviewDTO> getDTOsByManager(User manager) {
+        EntityManager em = getReadEntityManager();
 
-        getByUser(user).stream().filter(interview -> (interview.getHeld().isAfter(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            upcoming.add(interview);
-        });
+        try {
+            Query query = em.createNamedQuery("Interview.getByManager");
+            query.setParameter("manager", manager.getId());
 
-        return upcoming;
+            return getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
-    public List<InterviewDTO> getUpcomingDTOsByUser(User user) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
+    /**
+     * Builds the cursor for the page following the given one.
+     *
+     * @param page Interviews on the current page, in query order
+     * @param limit Page size requested
+     * @return Cursor for the next page, or null if this was the last page
+     */
+    public String getNextCursor(List<InterviewDTO> page, int limit) {
+        if (page.isEmpty() || page.size() < limit) {
+            return null;
+        }
 
-        getUpcomingsByUser(user).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
+        InterviewDTO last = page.get(page.size() - 1);
 
-        return interviewDTOs;
+        return Cursor.encode(last.getHeld(), last.getId().toString());
     }
 
-    public List<Interview> getPreviousByUser(User user) {
-        List<Interview> previous = new ArrayList<>();
+    private List<Interview> getPage(String queryName, String parameter, UUID id, String cursor, int limit) throws SanitizationException {
+        EntityManager em = getReadEntityManager();
 
-        getByUser(user).stream().filter(interview -> (interview.getHeld().isBefore(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            previous.add(interview);
-        });
+        try {
+            return createPageQuery(em, queryName, parameter, id, cursor, limit).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<InterviewDTO> getDTOPage(String queryName, String parameter, UUID id, String cursor, int limit) throws SanitizationException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            return getDTOs(em, createPageQuery(em, queryName, parameter, id, cursor, limit));
+        } finally {
+            em.close();
+        }
+    }
 
-        return previous;
+    Query createPageQuery(EntityManager em, String queryName, String parameter, UUID id, String cursor, int limit) throws SanitizationException {
+        // Upcoming and previous are split at the start of today
+        LocalDateTime bound = LocalDate.now().atTime(LocalTime.MIN);
+        LocalDateTime afterHeld = bound;
+        UUID afterId = TimeOrderedUUID.MIN;
+
+        if (cursor != null) {
+            String[] values = Cursor.decode(cursor, 2);
+
+            try {
+                afterHeld = LocalDateTime.parse(values[0]);
+                afterId = UUID.fromString(values[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new SanitizationException("Invalid cursor");
+            }
+        }
+
+        Query query = em.createNamedQuery(queryName);
+        query.setParameter(parameter, id);
+        query.setParameter("bound", bound);
+        query.setParameter("held", afterHeld);
+        query.setParameter("id", afterId);
+        query.setMaxResults(limit);
+
+        return query;
     }
 
-    public List<InterviewDTO> getPreviousDTOsByUser(User user) {
+    /**
+     * Runs an interview query with the full DTO graph attached and builds the
+     * DTOs while the entity manager is still open.
+     *
+     * Every relationship in the "Interview.dto" graph is batch read with an IN
+     * list over the whole result, so the number of statements depends on the
+     * depth of the graph and not on the number of interviews.
+     */
+    private List<InterviewDTO> getDTOs(EntityManager em, Query query) {
+        query.setHint(QueryHints.JPA_LOAD_GRAPH, em.getEntityGraph("Interview.dto"));
+        query.setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN);
+        query.setHint(QueryHints.LEFT_FETCH, "i.interviewTemplate");
+
+        for (String attribute : DTO_BATCH_ATTRIBUTES) {
+            query.setHint(QueryHints.BATCH, attribute);
+        }
+
+        List<Interview> interviews = query.getResultList();
         List<InterviewDTO> interviewDTOs = new ArrayList<>();
 
-        getPreviousByUser(user).forEach(interview -> {
+        interviews.forEach(interview -> {
             interviewDTOs.add(new InterviewDTO(interview));
         });
 
@@ -188,6 +275,8 @@ public class InterviewFacade {
             em.persist(interview);
             em.merge(manager);
             em.merge(employee);
+            interviewStatisticFacade.count(em, interview, 1);
+            interviewTimelineFacade.add(em, interview);
             em.getTransaction().commit();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -200,11 +289,134 @@ public class InterviewFacade {
         }
     }
 
-    public Interview getById(UUID id) throws InterviewNotFoundException {
+    /**
+     * Schedules a batch of interviews from one template.
+     *
+     * Rows are written in chunks of SCHEDULE_CHUNK_SIZE per transaction, so
+     * EclipseLink can batch the interview, question and link table inserts.
+     * If a chunk fails it is retried row by row, so one bad row does not take
+     * its neighbours down with it.
+     *
+     * @param template Template the interviews are created from
+     * @param company Company scheduling the interviews
+     * @param schedules Requested interviews
+     * @return One result per requested interview, in request order
+     */
+    public List<InterviewScheduleResultDTO> createAll(InterviewTemplate template, Company company, List<InterviewScheduleDTO> schedules) {
+        List<InterviewScheduleResultDTO> results = new ArrayList<>();
+        List<InterviewScheduleDTO> accepted = new ArrayList<>();
+        Map<UUID, User> users = getUsersById(schedules);
+
+        for (InterviewScheduleDTO schedule : schedules) {
+            User manager = users.get(schedule.getManagerId());
+            User employee = users.get(schedule.getEmployeeId());
+
+            if (manager == null || employee == null) {
+                results.add(new InterviewScheduleResultDTO(schedule.getIndex(), HttpURLConnection.HTTP_NOT_FOUND, null, "Bruger ikke fundet."));
+            } else if (!isEmployedBy(manager, company) || !isEmployedBy(employee, company)) {
+                results.add(new InterviewScheduleResultDTO(schedule.getIndex(), HttpURLConnection.HTTP_FORBIDDEN, null, "Brugeren tilhører ikke virksomheden."));
+            } else {
+                accepted.add(schedule);
+            }
+        }
+
+        for (int from = 0; from < accepted.size(); from += SCHEDULE_CHUNK_SIZE) {
+            List<InterviewScheduleDTO> chunk = accepted.subList(from, Math.min(from + SCHEDULE_CHUNK_SIZE, accepted.size()));
+
+            try {
+                results.addAll(createChunk(template, company, chunk));
+            } catch (DatabaseException e) {
+                for (InterviewScheduleDTO schedule : chunk) {
+                    try {
+                        results.addAll(createChunk(template, company, Collections.singletonList(schedule)));
+                    } catch (DatabaseException ex) {
+                        results.add(new InterviewScheduleResultDTO(schedule.getIndex(), HttpURLConnection.HTTP_INTERNAL_ERROR, null, "Samtalen kunne ikke oprettes."));
+                    }
+                }
+            }
+        }
+
+        results.sort(Comparator.comparingInt(InterviewScheduleResultDTO::getIndex));
+
+        return results;
+    }
+
+    private List<InterviewScheduleResultDTO> createChunk(InterviewTemplate template, Company company, List<InterviewScheduleDTO> chunk) throws DatabaseException {
+        List<InterviewScheduleResultDTO> results = new ArrayList<>();
+
+        // Each chunk gets its own short-lived EntityManager rather than the request one, keeping the persistence context small
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+
+            for (InterviewScheduleDTO schedule : chunk) {
+                User manager = em.find(User.class, schedule.getManagerId());
+                User employee = em.find(User.class, schedule.getEmployeeId());
+
+                Interview interview = new Interview(template, schedule.getHeld());
+                interview.addManager(manager);
+                interview.addEmployee(employee);
+                interview.setCompany(company);
+
+                em.persist(interview);
+                interviewStatisticFacade.count(em, interview, 1);
+                interviewTimelineFacade.add(em, interview);
+                results.add(new InterviewScheduleResultDTO(schedule.getIndex(), HttpURLConnection.HTTP_CREATED, interview.getId(), "Samtale oprettet."));
+            }
+
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        return results;
+    }
+
+    private Map<UUID, User> getUsersById(List<InterviewScheduleDTO> schedules) {
+        Set<UUID> ids = new HashSet<>();
+
+        schedules.forEach(schedule -> {
+            ids.add(schedule.getManagerId());
+            ids.add(schedule.getEmployeeId());
+        });
+
+        Map<UUID, User> users = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>(ids);
         EntityManager em = getEntityManager();
 
         try {
-            Interview interview = em.find(Interview.class, id.toString());
+            for (int from = 0; from < remaining.size(); from += SCHEDULE_CHUNK_SIZE) {
+                Query query = em.createNamedQuery("User.getByIds");
+                query.setParameter("ids", remaining.subList(from, Math.min(from + SCHEDULE_CHUNK_SIZE, remaining.size())));
+
+                List<User> found = query.getResultList();
+                found.forEach(user -> {
+                    users.put(user.getId(), user);
+                });
+            }
+        } finally {
+            em.close();
+        }
+
+        return users;
+    }
+
+    private boolean isEmployedBy(User user, Company company) {
+        return user.getCompany() != null && user.getCompany().getId().equals(company.getId());
+    }
+
+    public Interview getById(UUID id) throws InterviewNotFoundException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            Interview interview = em.find(Interview.class, id);
 
             if (interview == null) {
                 throw new InterviewNotFoundException();
@@ -221,13 +433,21 @@ public class InterviewFacade {
     }
 
     public void delete(Interview interview) throws DatabaseException {
+        boolean counted = interview.getDeleted() == null;
         interview.setDeleted(LocalDateTime.now());
 
         EntityManager em = getEntityManager();
 
         try {
             em.getTransaction().begin();
-            em.merge(interview);
+            Interview deleted = em.merge(interview);
+
+            if (counted) {
+                interviewStatisticFacade.count(em, deleted, -1);
+            }
+
+            interviewTimelineFacade.remove(em, deleted.getId());
+
             em.getTransaction().commit();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
@@ -250,57 +470,160 @@ public class InterviewFacade {
         });
     }
 
-    public void update(Interview interview, User user, String summary, Map<UUID, String> answersToQuestions) throws DatabaseException {
-        boolean answered;
-        int index;
+    // Reads past the request's EntityManager, which still holds the interview as it was before the conflict
+    private InterviewDTO getLatestDTOById(UUID id) throws InterviewNotFoundException {
+        EntityManager em = emf.createEntityManager();
 
-        List<InterviewQuestionAnswer> answers = new ArrayList<>();
+        try {
+            Interview interview = em.find(Interview.class, id);
 
-        interview.setSummary(summary);
+            if (interview == null) {
+                throw new InterviewNotFoundException();
+            }
 
-        InterviewQuestionAnswer tmp;
-        for (InterviewQuestion question : interview.getInterviewQuestions()) {
-            System.out.println(question.getInterviewQuestionAnswers().size());
-            answered = false;
+            return new InterviewDTO(interview);
+        } finally {
+            em.close();
+        }
+    }
 
-            if (!answersToQuestions.containsKey(question.getId())) {
-                continue;
-            }
+    /**
+     * Saves the summary and the answers of one user.
+     *
+     * The user's existing answers are loaded with a single query and indexed
+     * by question, so only answers that are new or changed are written, and
+     * the summary only when it changed. Answers to questions outside the
+     * interview are ignored.
+     *
+     * Interviews and answers are versioned. The client sends the versions it
+     * last read, and a change is rejected when the stored value has moved on
+     * in the meantime, unless it already holds the value being saved. A null
+     * version skips the check, a version of 0 means the client saw no answer.
+     * Conflicts are collected per answer before the transaction is opened,
+     * nothing is written when there is one, and the exception carries the
+     * current state of the interview. Writes racing past the check are caught
+     * by the version column itself. The update runs on its own
+     * EntityManager, so rolling such a write back leaves the entities of the
+     * request attached.
+     *
+     * The answered questions in the statistics only grow with the first
+     * answer to a question. Questions are flagged as answered by one
+     * conditional update, and only the rows it changed are counted, so two
+     * users answering the same question at the same time can not both count
+     * as the first.
+     *
+     * @param interview Interview to update
+     * @param user User answering
+     * @param summary Summary of the interview
+     * @param version Version of the interview the summary was edited from
+     * @param answersToQuestions Answers by question id
+     * @param answerVersions Version of the user's answer each answer was
+     * edited from, by question id
+     * @throws DatabaseException
+     * @throws InterviewConflictException
+     * @throws InterviewNotFoundException
+     */
+    public void update(Interview interview, User user, String summary, Long version, Map<UUID, String> answersToQuestions, Map<UUID, Long> answerVersions) throws DatabaseException, InterviewConflictException, InterviewNotFoundException {
+        Set<UUID> questionIds = new HashSet<>();
+        interview.getInterviewQuestions().forEach(question -> {
+            questionIds.add(question.getId());
+        });
 
-            for (InterviewQuestionAnswer answer : question.getInterviewQuestionAnswers()) {
-                if (answer.getUser() != user) {
-                    System.out.println("WRONG");
-                    continue;
-                }
+        List<UUID> answeredQuestionIds = new ArrayList<>();
+        List<UUID> conflictingQuestionIds = new ArrayList<>();
+        boolean summaryConflict = false;
+        int completed = 0;
 
-                System.out.println("CORRECT");
-                answer.setAnswer(answersToQuestions.get(question.getId()));
+        // Its own EntityManager like createChunk, so a rollback never detaches the entities of the request
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            // Everything is checked before the transaction, so none is open when the update stops early
+            Interview current = em.find(Interview.class, interview.getId());
 
-                answered = true;
-                break;
+            if (current == null) {
+                throw new InterviewNotFoundException();
             }
 
-            if (!answered) {
-                System.out.println("EJ BESVARET!");
-                tmp = new InterviewQuestionAnswer();
-                tmp.setUser(user);
-                tmp.setAnswer(answersToQuestions.get(question.getId()));
-                tmp.setInterviewQuestion(question);
+            Map<UUID, InterviewQuestionAnswer> answersByQuestion = new HashMap<>();
+            List<InterviewQuestionAnswer> existing = em.createNamedQuery("InterviewQuestionAnswer.getByInterviewAndUser", InterviewQuestionAnswer.class)
+                    .setParameter("user", user.getId())
+                    .setParameter("interview", interview.getId())
+                    .getResultList();
+
+            existing.forEach(answer -> {
+                answersByQuestion.put(answer.getInterviewQuestion().getId(), answer);
+            });
+
+            summaryConflict = !Objects.equals(current.getSummary(), summary) && version != null && version != current.getVersion();
 
-                index = interview.getInterviewQuestions().indexOf(question);
-                interview.getInterviewQuestions().get(index).addInterviewQuestionAnswer(tmp);
+            for (Map.Entry<UUID, String> entry : answersToQuestions.entrySet()) {
+                InterviewQuestionAnswer answer = answersByQuestion.get(entry.getKey());
+                Long answerVersion = answerVersions.get(entry.getKey());
+
+                if (questionIds.contains(entry.getKey()) && answer != null && !Objects.equals(answer.getAnswer(), entry.getValue())
+                        && answerVersion != null && answerVersion != answer.getVersion()) {
+                    conflictingQuestionIds.add(entry.getKey());
+                }
             }
-        }
 
-        EntityManager em = getEntityManager();
+            if (!summaryConflict && conflictingQuestionIds.isEmpty()) {
+                em.getTransaction().begin();
 
-        try {
-            em.getTransaction().begin();
-            for (InterviewQuestionAnswer answer : answers) {
-                em.merge(answer);
+                if (!Objects.equals(current.getSummary(), summary)) {
+                    completed = (InterviewStatisticFacade.isCompleted(summary) ? 1 : 0) - (InterviewStatisticFacade.isCompleted(current.getSummary()) ? 1 : 0);
+                    current.setSummary(summary);
+                }
+
+                for (Map.Entry<UUID, String> entry : answersToQuestions.entrySet()) {
+                    if (!questionIds.contains(entry.getKey())) {
+                        continue;
+                    }
+
+                    InterviewQuestionAnswer answer = answersByQuestion.get(entry.getKey());
+
+                    if (answer == null) {
+                        answer = new InterviewQuestionAnswer();
+                        answer.setUser(em.getReference(User.class, user.getId()));
+                        answer.setInterviewQuestion(em.getReference(InterviewQuestion.class, entry.getKey()));
+                        answer.setAnswer(entry.getValue());
+                        em.persist(answer);
+
+                        answeredQuestionIds.add(entry.getKey());
+                    } else if (!Objects.equals(answer.getAnswer(), entry.getValue())) {
+                        // Managed, so the flush only updates the answer column of this row
+                        answer.setAnswer(entry.getValue());
+                    }
+                }
+
+                em.flush();
+
+                // A new answer only adds to the statistics when it is the first, the update only changes questions nobody answered before
+                int answered = 0;
+
+                if (!answeredQuestionIds.isEmpty()) {
+                    answered = em.createNamedQuery("InterviewQuestion.markAnswered")
+                            .setParameter("ids", answeredQuestionIds)
+                            .executeUpdate();
+                }
+
+                interviewStatisticFacade.add(em, current, 0, completed, 0, answered);
+                interviewTimelineFacade.addAnswered(em, current.getId(), user.getId(), answeredQuestionIds.size());
+
+                em.getTransaction().commit();
             }
-            em.merge(interview);
-            em.getTransaction().commit();
+        } catch (OptimisticLockException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            if (e.getEntity() instanceof InterviewQuestionAnswer) {
+                conflictingQuestionIds.add(((InterviewQuestionAnswer) e.getEntity()).getInterviewQuestion().getId());
+            } else {
+                summaryConflict = true;
+            }
+        } catch (InterviewNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -309,7 +632,27 @@ public class InterviewFacade {
             throw new DatabaseException();
         } finally {
             em.close();
+        }
+
+        if (summaryConflict || !conflictingQuestionIds.isEmpty()) {
+            // Someone else wrote in between, make sure the state sent back is read from the database
+            emf.getCache().evict(Interview.class, interview.getId());
+            questionIds.forEach(id -> {
+                emf.getCache().evict(InterviewQuestion.class, id);
+            });
+
+            throw new InterviewConflictException(getLatestDTOById(interview.getId()), summaryConflict, conflictingQuestionIds);
+        }
+
+        interview.setSummary(summary);
+
+        // New answers are not part of the cached answer collections, reload them on next read
+        if (!answeredQuestionIds.isEmpty()) {
+            answeredQuestionIds.forEach(id -> {
+                emf.getCache().evict(InterviewQuestion.class, id);
+            });
 
+            emf.getCache().evict(User.class, user.getId());
         }
     }
 }
@@ -2,6 +2,7 @@ package facades;
 
 import dtos.InterviewQuestionTemplateDTO;
 import entities.InterviewQuestionTemplate;
+import entities.InterviewTemplate;
 import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.InterviewQuestionTemplateNotFoundException;
 import java.util.ArrayList;
@@ -10,6 +11,8 @@ import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import utils.ReferenceDataCache;
+import utils.RequestEntityManager;
 import static utils.sanitizer.InterviewQuestionTemplate.sanitizeName;
 import static utils.sanitizer.InterviewQuestionTemplate.sanitizeQuestion;
 
@@ -36,11 +39,15 @@ public class InterviewQuestionTemplateFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<InterviewQuestionTemplate> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("InterviewQuestionTemplate.getAll");
@@ -73,6 +80,7 @@ public class InterviewQuestionTemplateFacade {
             em.getTransaction().begin();
             em.persist(interviewQuestionTemplate);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewQuestionTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -89,9 +97,10 @@ public class InterviewQuestionTemplateFacade {
 
         try {
             em.getTransaction().begin();
-            InterviewQuestionTemplate interviewQuestionTemplate = em.find(InterviewQuestionTemplate.class, id.toString());
+            InterviewQuestionTemplate interviewQuestionTemplate = em.find(InterviewQuestionTemplate.class, id);
             em.remove(interviewQuestionTemplate);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewQuestionTemplate.class, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -104,10 +113,10 @@ public class InterviewQuestionTemplateFacade {
     }
 
     public InterviewQuestionTemplate getById(UUID id) throws InterviewQuestionTemplateNotFoundException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
-            InterviewQuestionTemplate interviewQuestionTemplate = em.find(InterviewQuestionTemplate.class, id.toString());
+            InterviewQuestionTemplate interviewQuestionTemplate = em.find(InterviewQuestionTemplate.class, id);
 
             if (interviewQuestionTemplate == null) {
                 throw new InterviewQuestionTemplateNotFoundException();
@@ -136,6 +145,7 @@ public class InterviewQuestionTemplateFacade {
             em.getTransaction().begin();
             em.merge(template);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewQuestionTemplate.class, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
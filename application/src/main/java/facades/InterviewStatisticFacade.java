@@ -0,0 +1,131 @@
+package facades;
+
+import dtos.InterviewStatisticDTO;
+import entities.Company;
+import entities.Interview;
+import entities.InterviewStatistic;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import utils.RequestEntityManager;
+import utils.TimeOrderedUUID;
+import utils.UUIDBinaryConverter;
+
+/**
+ * Interview totals per company, month and template, for the HR dashboards.
+ *
+ * The totals are never computed from the interviews. InterviewFacade adds
+ * the difference every change makes, inside the transaction making it, so
+ * reading them costs one row per month and template no matter how many
+ * interviews there are. An interview counts as completed once it has a
+ * summary, and a question as answered once anyone has answered it. Deleted
+ * interviews are subtracted, archived interviews stay counted.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewStatisticFacade {
+
+    private static EntityManagerFactory emf = null;
+    private static InterviewStatisticFacade instance = null;
+
+    // Adds to the row of the key, creating it on first use, as one atomic statement
+    private static final String UPSERT = "INSERT INTO interview_statistics (id, company_id, month, interviewtemplate_id, interviews, completed, questions, answered_questions) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "interviews = interviews + VALUES(interviews), completed = completed + VALUES(completed), "
+            + "questions = questions + VALUES(questions), answered_questions = answered_questions + VALUES(answered_questions)";
+
+    private InterviewStatisticFacade() {
+        // Private to ensure singleton
+    }
+
+    public static InterviewStatisticFacade getInterviewStatisticFacade(EntityManagerFactory _emf) {
+        if (instance == null) {
+            emf = _emf;
+            instance = new InterviewStatisticFacade();
+        }
+
+        return instance;
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
+    }
+
+    public List<InterviewStatisticDTO> getDTOsByCompany(Company company, YearMonth from, YearMonth to) {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            TypedQuery<InterviewStatistic> query = em.createNamedQuery("InterviewStatistic.getByCompany", InterviewStatistic.class);
+            query.setParameter("company", company.getId());
+            query.setParameter("from", from.atDay(1));
+            query.setParameter("to", to.atDay(1));
+
+            List<InterviewStatisticDTO> statisticDTOs = new ArrayList<>();
+            query.getResultList().forEach(statistic -> {
+                statisticDTOs.add(new InterviewStatisticDTO(statistic));
+            });
+
+            return statisticDTOs;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Adds to the totals of the interview's company, month and template. Has
+     * to run inside the caller's transaction, so the totals are committed or
+     * rolled back together with the change they describe.
+     *
+     * @param em EntityManager with an active transaction
+     * @param interview Interview that changed
+     * @param interviews Change in the number of interviews
+     * @param completed Change in the number of completed interviews
+     * @param questions Change in the number of questions
+     * @param answeredQuestions Change in the number of answered questions
+     */
+    void add(EntityManager em, Interview interview, int interviews, int completed, int questions, int answeredQuestions) {
+        if (interview.getCompany() == null || interview.getHeld() == null) {
+            return;
+        }
+
+        if (interviews == 0 && completed == 0 && questions == 0 && answeredQuestions == 0) {
+            return;
+        }
+
+        em.createNativeQuery(UPSERT)
+                .setParameter(1, UUIDBinaryConverter.toBytes(TimeOrderedUUID.generate()))
+                .setParameter(2, UUIDBinaryConverter.toBytes(interview.getCompany().getId()))
+                .setParameter(3, Date.valueOf(YearMonth.from(interview.getHeld()).atDay(1)))
+                .setParameter(4, UUIDBinaryConverter.toBytes(interview.getInterviewTemplate().getId()))
+                .setParameter(5, interviews)
+                .setParameter(6, completed)
+                .setParameter(7, questions)
+                .setParameter(8, answeredQuestions)
+                .executeUpdate();
+    }
+
+    /**
+     * Adds a whole interview to the totals, or subtracts it when sign is -1.
+     *
+     * @param em EntityManager with an active transaction
+     * @param interview Interview to count
+     * @param sign 1 to add the interview, -1 to subtract it
+     */
+    void count(EntityManager em, Interview interview, int sign) {
+        int completed = isCompleted(interview.getSummary()) ? 1 : 0;
+        int answered = (int) interview.getInterviewQuestions().stream()
+                .filter(question -> !question.getInterviewQuestionAnswers().isEmpty())
+                .count();
+
+        add(em, interview, sign, sign * completed, sign * interview.getInterviewQuestions().size(), sign * answered);
+    }
+
+    static boolean isCompleted(String summary) {
+        return summary != null && !summary.trim().isEmpty();
+    }
+
+}
@@ -11,6 +11,8 @@ import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import utils.ReferenceDataCache;
+import utils.RequestEntityManager;
 
 /**
  *
@@ -35,11 +37,15 @@ public class InterviewTemplateFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<InterviewTemplate> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("InterviewTemplate.getAll");
@@ -69,6 +75,7 @@ public class InterviewTemplateFacade {
             em.getTransaction().begin();
             em.persist(interviewTemplate);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -81,10 +88,10 @@ public class InterviewTemplateFacade {
     }
 
     public InterviewTemplate getById(UUID id) throws InterviewTemplateNotFoundException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
-            InterviewTemplate interviewTemplate = em.find(InterviewTemplate.class, id.toString());
+            InterviewTemplate interviewTemplate = em.find(InterviewTemplate.class, id);
 
             if (interviewTemplate == null) {
                 throw new InterviewTemplateNotFoundException();
@@ -106,10 +113,11 @@ public class InterviewTemplateFacade {
         try {
             em.getTransaction().begin();
 
-            InterviewTemplate interviewTemplate = em.find(InterviewTemplate.class, id.toString());
+            InterviewTemplate interviewTemplate = em.find(InterviewTemplate.class, id);
 
             em.remove(interviewTemplate);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -130,6 +138,7 @@ public class InterviewTemplateFacade {
             em.getTransaction().begin();
             em.merge(template);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -150,6 +159,7 @@ public class InterviewTemplateFacade {
             em.getTransaction().begin();
             em.merge(template);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -172,6 +182,7 @@ public class InterviewTemplateFacade {
             em.getTransaction().begin();
             em.merge(template);
             em.getTransaction().commit();
+            ReferenceDataCache.invalidate(emf, InterviewTemplate.class);
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
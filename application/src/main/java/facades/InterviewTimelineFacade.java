@@ -0,0 +1,254 @@
+package facades;
+
+import dtos.InterviewTimelineDTO;
+import entities.Interview;
+import entities.InterviewTimelineEntry;
+import entities.User;
+import errorhandling.exceptions.DatabaseException;
+import errorhandling.exceptions.SanitizationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import utils.Cursor;
+import utils.RequestEntityManager;
+import utils.TimeOrderedUUID;
+
+/**
+ * The interview lists of every user, kept as one InterviewTimelineEntry per
+ * participant and interview.
+ *
+ * InterviewFacade and InterviewArchiveFacade write the entries inside the
+ * transaction that changes the interview, so a list page is a single range
+ * scan over the index on (user_id, role, held, interview_id) instead of a
+ * walk through the link tables, questions and answers.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewTimelineFacade {
+
+    private static EntityManagerFactory emf = null;
+    private static InterviewTimelineFacade instance = null;
+    private static InterviewFacade interviewFacade = null;
+
+    private static final int BACKFILL_CHUNK_SIZE = 100;
+    private static final int COUNTERPARTS_LENGTH = 1000;
+
+    private InterviewTimelineFacade() {
+        // Private to ensure singleton
+    }
+
+    public static InterviewTimelineFacade getInterviewTimelineFacade(EntityManagerFactory _emf) {
+        if (instance == null) {
+            emf = _emf;
+            instance = new InterviewTimelineFacade();
+            interviewFacade = InterviewFacade.getInterviewFacade(emf);
+        }
+
+        return instance;
+    }
+
+    private EntityManager getEntityManager() {
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
+    }
+
+    public List<InterviewTimelineDTO> getUpcomingDTOsByEmployee(User employee, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("InterviewTimelineEntry.getUpcomingByEmployee", employee, cursor, limit);
+    }
+
+    public List<InterviewTimelineDTO> getPreviousDTOsByEmployee(User employee, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("InterviewTimelineEntry.getPreviousByEmployee", employee, cursor, limit);
+    }
+
+    public List<InterviewTimelineDTO> getUpcomingDTOsByManager(User manager, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("InterviewTimelineEntry.getUpcomingByManager", manager, cursor, limit);
+    }
+
+    public List<InterviewTimelineDTO> getPreviousDTOsByManager(User manager, String cursor, int limit) throws SanitizationException {
+        return getDTOPage("InterviewTimelineEntry.getPreviousByManager", manager, cursor, limit);
+    }
+
+    /**
+     * Builds the cursor for the page following the given one, in the same
+     * format as the cursors of the full interview lists.
+     *
+     * @param page Entries on the current page, in query order
+     * @param limit Page size requested
+     * @return Cursor for the next page, or null if this was the last page
+     */
+    public String getNextCursor(List<InterviewTimelineDTO> page, int limit) {
+        if (page.isEmpty() || page.size() < limit) {
+            return null;
+        }
+
+        InterviewTimelineDTO last = page.get(page.size() - 1);
+
+        return Cursor.encode(last.getHeld(), last.getId().toString());
+    }
+
+    private List<InterviewTimelineDTO> getDTOPage(String queryName, User user, String cursor, int limit) throws SanitizationException {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            Query query = interviewFacade.createPageQuery(em, queryName, "user", user.getId(), cursor, limit);
+
+            List<InterviewTimelineEntry> entries = query.getResultList();
+            List<InterviewTimelineDTO> timelineDTOs = new ArrayList<>();
+
+            entries.forEach(entry -> {
+                timelineDTOs.add(new InterviewTimelineDTO(entry));
+            });
+
+            return timelineDTOs;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Writes the entries of every manager and employee of a new interview.
+     * Has to run inside the caller's transaction.
+     *
+     * @param em EntityManager with an active transaction
+     * @param interview Interview to add
+     */
+    void add(EntityManager em, Interview interview) {
+        String managers = getNames(interview.getManagers());
+        String employees = getNames(interview.getEmployees());
+
+        interview.getManagers().forEach(manager -> {
+            em.persist(new InterviewTimelineEntry(manager.getId(), interview, InterviewTimelineEntry.MANAGER, employees, getAnswered(interview, manager)));
+        });
+
+        interview.getEmployees().forEach(employee -> {
+            em.persist(new InterviewTimelineEntry(employee.getId(), interview, InterviewTimelineEntry.EMPLOYEE, managers, getAnswered(interview, employee)));
+        });
+    }
+
+    /**
+     * Removes the entries of a deleted or archived interview. Has to run
+     * inside the caller's transaction.
+     *
+     * @param em EntityManager with an active transaction
+     * @param interviewId Id of the interview
+     */
+    void remove(EntityManager em, UUID interviewId) {
+        em.createNamedQuery("InterviewTimelineEntry.deleteByInterview")
+                .setParameter("interview", interviewId)
+                .executeUpdate();
+    }
+
+    /**
+     * Counts new answers of a user. Has to run inside the caller's
+     * transaction.
+     *
+     * @param em EntityManager with an active transaction
+     * @param interviewId Id of the interview
+     * @param userId Id of the user answering
+     * @param answered Number of questions the user answered for the first
+     * time
+     */
+    void addAnswered(EntityManager em, UUID interviewId, UUID userId, int answered) {
+        if (answered == 0) {
+            return;
+        }
+
+        em.createNamedQuery("InterviewTimelineEntry.addAnswered")
+                .setParameter("answered", answered)
+                .setParameter("interview", interviewId)
+                .setParameter("user", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * Writes the entries of every live interview that has none, in chunks of
+     * BACKFILL_CHUNK_SIZE per transaction. Used once, to fill the timeline
+     * from the interviews that existed before it.
+     *
+     * @return Number of interviews added
+     * @throws DatabaseException If a chunk could not be written
+     */
+    public int backfill() throws DatabaseException {
+        int added = 0;
+        UUID after = TimeOrderedUUID.MIN;
+        List<UUID> ids;
+
+        do {
+            ids = getMissingInterviewIds(after);
+
+            if (!ids.isEmpty()) {
+                added += backfill(ids);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == BACKFILL_CHUNK_SIZE);
+
+        return added;
+    }
+
+    private List<UUID> getMissingInterviewIds(UUID after) {
+        EntityManager em = getEntityManager();
+
+        try {
+            return em.createNamedQuery("InterviewTimelineEntry.getInterviewIdsMissing", UUID.class)
+                    .setParameter("id", after)
+                    .setMaxResults(BACKFILL_CHUNK_SIZE)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private int backfill(List<UUID> ids) throws DatabaseException {
+        int added = 0;
+
+        EntityManager em = getEntityManager();
+
+        try {
+            em.getTransaction().begin();
+
+            for (UUID id : ids) {
+                Interview interview = em.find(Interview.class, id);
+
+                if (interview != null) {
+                    add(em, interview);
+                    added++;
+                }
+            }
+
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        return added;
+    }
+
+    private static int getAnswered(Interview interview, User user) {
+        return (int) interview.getInterviewQuestions().stream()
+                .filter(question -> question.getInterviewQuestionAnswers().stream()
+                .anyMatch(answer -> answer.getUser().getId().equals(user.getId())))
+                .count();
+    }
+
+    private static String getNames(List<User> users) {
+        String names = users.stream()
+                .map(User::getFullname)
+                .collect(Collectors.joining(", "));
+
+        return names.length() > COUNTERPARTS_LENGTH ? names.substring(0, COUNTERPARTS_LENGTH) : names;
+    }
+
+}
@@ -3,7 +3,6 @@ package facades;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import entities.RevokedJWT;
@@ -14,12 +13,17 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
-import security.SharedSecret;
+import javax.persistence.TypedQuery;
+import security.KeyRing;
+import security.RevokedTokenIndex;
+import utils.RequestEntityManager;
 
 /**
  *
@@ -30,6 +34,7 @@ public class JWTFacade {
     private static EntityManagerFactory emf = null;
     private static JWTFacade instance = null;
     private static UserFacade userFacade = null;
+    private static final RevokedTokenIndex REVOKED_TOKENS = new RevokedTokenIndex();
 
     private static final long JWT_LIFE_TIME = TimeUnit.MILLISECONDS.convert(30, TimeUnit.MINUTES); // 30 min
     private static final String JWT_ISSUER = "godialog.cphbusiness";
@@ -43,13 +48,20 @@ public class JWTFacade {
             emf = _emf;
             instance = new JWTFacade();
             userFacade = UserFacade.getUserFacade(_emf);
+
+            try {
+                instance.resyncRevoked();
+            } catch (DatabaseException e) {
+                // Lookups go to the database until a later resync succeeds
+                System.out.println("Unable to load revoked tokens");
+            }
         }
 
         return instance;
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
     }
 
     public String create(User user) throws JOSEException {
@@ -80,8 +92,13 @@ public class JWTFacade {
                 .claim("token_id", tokenId)
                 .build();
 
-        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claimsSet);
-        signedJWT.sign(new MACSigner(SharedSecret.getSecretKey()));
+        KeyRing keyRing = KeyRing.getKeyRing();
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS512)
+                .keyID(keyRing.getSigningKeyId())
+                .build();
+
+        SignedJWT signedJWT = new SignedJWT(header, claimsSet);
+        signedJWT.sign(keyRing.getSigner());
 
         return signedJWT.serialize();
     }
@@ -93,7 +110,7 @@ public class JWTFacade {
             String jwtID = signedJWT.getJWTClaimsSet().getClaim("token_id").toString();
             long JWTExpirationTime = signedJWT.getJWTClaimsSet().getExpirationTime().getTime();
 
-            revoke(token, Instant.ofEpochMilli(JWTExpirationTime).atZone(ZoneId.systemDefault()).toLocalDateTime());
+            revoke(jwtID, Instant.ofEpochMilli(JWTExpirationTime).atZone(ZoneId.systemDefault()).toLocalDateTime());
         } catch (Exception e) {
 
         }
@@ -117,9 +134,22 @@ public class JWTFacade {
         } finally {
             em.close();
         }
+
+        REVOKED_TOKENS.add(token, toEpochMilli(expire));
     }
 
+    /**
+     * Answered from the in memory index once it has been loaded, so
+     * authentication does not wait for the database.
+     *
+     * @param token Id of the token
+     * @return True if the token has been revoked and has not expired
+     */
     public boolean isRevoked(String token) {
+        if (REVOKED_TOKENS.isLoaded()) {
+            return REVOKED_TOKENS.contains(token);
+        }
+
         EntityManager em = getEntityManager();
 
         try {
@@ -131,6 +161,79 @@ public class JWTFacade {
         }
     }
 
+    /**
+     * Reloads the revoked token index from the database, picking up tokens
+     * revoked on other nodes and dropping expired ones.
+     *
+     * @throws DatabaseException If the revocations could not be read
+     */
+    public void resyncRevoked() throws DatabaseException {
+        Map<String, Long> revoked = new HashMap<>();
+
+        EntityManager em = getEntityManager();
+
+        try {
+            TypedQuery<RevokedJWT> query = em.createNamedQuery("RevokedJWT.getUnexpired", RevokedJWT.class);
+            query.setParameter("now", LocalDateTime.now());
+
+            query.getResultList().forEach(revokedJWT -> {
+                revoked.put(revokedJWT.getID(), toEpochMilli(revokedJWT.getExpire()));
+            });
+        } catch (Exception e) {
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        REVOKED_TOKENS.replace(revoked);
+    }
+
+    /**
+     * Deletes up to limit revocations of tokens that have expired. An expired
+     * token is rejected on its expiry time alone, so the rows are no longer
+     * needed.
+     *
+     * @param limit Maximum number of rows to delete
+     * @return Number of rows deleted
+     * @throws DatabaseException If the rows could not be deleted
+     */
+    public int deleteExpiredRevoked(int limit) throws DatabaseException {
+        int deleted;
+
+        EntityManager em = getEntityManager();
+
+        try {
+            List<String> ids = em.createNamedQuery("RevokedJWT.getExpiredIds", String.class)
+                    .setParameter("now", LocalDateTime.now())
+                    .setMaxResults(limit)
+                    .getResultList();
+
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            em.getTransaction().begin();
+            deleted = em.createNamedQuery("RevokedJWT.deleteByIds")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+
+        return deleted;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     public String revokeAndCreateNewToken(String token) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
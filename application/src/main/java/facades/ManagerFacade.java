@@ -1,16 +1,20 @@
 package facades;
 
+import dtos.EmployeeDashboardDTO;
 import dtos.InterviewDTO;
 import dtos.UserDTO;
 import entities.Interview;
 import entities.User;
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import utils.RequestEntityManager;
 
 /**
  *
@@ -20,6 +24,8 @@ public class ManagerFacade {
 
     private static EntityManagerFactory emf = null;
     private static ManagerFacade instance = null;
+    private static InterviewFacade interviewFacade = null;
+    private static UserFacade userFacade = null;
 
     private ManagerFacade() {
         // Private to ensure singleton
@@ -29,21 +35,23 @@ public class ManagerFacade {
         if (instance == null) {
             emf = _emf;
             instance = new ManagerFacade();
+            interviewFacade = InterviewFacade.getInterviewFacade(emf);
+            userFacade = UserFacade.getUserFacade(emf);
         }
 
         return instance;
     }
 
-    private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<Interview> getByManager(User manager) {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Interview.getByManager");
-            query.setParameter("manager", manager.getId().toString());
+            query.setParameter("manager", manager.getId());
 
             return query.getResultList();
         } finally {
@@ -52,78 +60,85 @@ public class ManagerFacade {
     }
 
     public List<InterviewDTO> getDTOsByManager(User manager) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
-
-        getByManager(manager).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
-
-        return interviewDTOs;
+        return interviewFacade.getDTOsByManager(manager);
     }
 
-    public List<Interview> getUpcomingByManager(User manager) {
-        List<Interview> interviews = new ArrayList<>();
+    public List<User> getEmployeesByManager(User manager) {
+        EntityManager em = getReadEntityManager();
 
-        getByManager(manager).stream().filter(interview -> (interview.getHeld().isAfter(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            interviews.add(interview);
-        });
+        try {
+            Query query = em.createNamedQuery("User.getByManager");
+            query.setParameter("manager", manager.getId());
 
-        return interviews;
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
     }
 
-    public List<InterviewDTO> getUpcomingsDTOsByManager(User manager) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
+    public List<UserDTO> getEmployeeDTOsByManager(User manager) {
+        EntityManager em = getReadEntityManager();
 
-        getUpcomingByManager(manager).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
+        try {
+            TypedQuery<UserDTO> query = em.createNamedQuery("User.getDTOsByManager", UserDTO.class);
+            query.setParameter("manager", manager.getId());
 
-        return interviewDTOs;
+            return userFacade.getDTOs(em, query);
+        } finally {
+            em.close();
+        }
     }
 
-    public List<Interview> getPreviousByManager(User manager) {
-        List<Interview> interviews = new ArrayList<>();
+    /**
+     * Interview overview of every employee of the manager. Each aggregate is
+     * computed by one GROUP BY query, so the cost does not depend on how many
+     * interviews the employees have had.
+     *
+     * @param manager Manager of the employees
+     * @return One entry per employee
+     */
+    public List<EmployeeDashboardDTO> getDashboard(User manager) {
+        LocalDateTime now = LocalDateTime.now();
+        EntityManager em = getReadEntityManager();
 
-        getByManager(manager).stream().filter(interview -> (interview.getHeld().isBefore(LocalDate.now().atTime(LocalTime.MIN)))).forEachOrdered(interview -> {
-            interviews.add(interview);
-        });
+        try {
+            TypedQuery<EmployeeDashboardDTO> query = em.createNamedQuery("User.getDashboardByManager", EmployeeDashboardDTO.class);
+            query.setParameter("manager", manager.getId());
 
-        return interviews;
-    }
+            List<EmployeeDashboardDTO> dashboard = query.getResultList();
 
-    public List<InterviewDTO> getProviousDTOsByManager(User manager) {
-        List<InterviewDTO> interviewDTOs = new ArrayList<>();
+            Map<UUID, EmployeeDashboardDTO> employees = new HashMap<>();
+            dashboard.forEach(employee -> {
+                employees.put(employee.getEmployeeId(), employee);
+            });
 
-        getPreviousByManager(manager).forEach(interview -> {
-            interviewDTOs.add(new InterviewDTO(interview));
-        });
+            getRows(em, "User.getUpcomingInterviewStatsByManager", manager, now).forEach(row -> {
+                employees.get((UUID) row[0]).setUpcoming((LocalDateTime) row[1], ((Number) row[2]).longValue());
+            });
 
-        return interviewDTOs;
-    }
+            getRows(em, "User.getPreviousInterviewStatsByManager", manager, now).forEach(row -> {
+                employees.get((UUID) row[0]).setPrevious((LocalDateTime) row[1], ((Number) row[2]).longValue());
+            });
 
-    public List<User> getEmployeesByManager(User manager) {
-        EntityManager em = getEntityManager();
+            getRows(em, "User.getUnansweredQuestionCountsByManager", manager, null).forEach(row -> {
+                employees.get((UUID) row[0]).setUnansweredQuestions(((Number) row[1]).longValue());
+            });
 
-        try {
-            Query query = em.createNamedQuery("User.getByManager");
-            query.setParameter("manager", manager.getId().toString());
-
-            System.out.println(query);
-
-            return query.getResultList();
+            return dashboard;
         } finally {
             em.close();
         }
     }
 
-    public List<UserDTO> getEmployeeDTOsByManager(User manager) {
-        List<UserDTO> userDTOs = new ArrayList<>();
+    private List<Object[]> getRows(EntityManager em, String name, User manager, LocalDateTime bound) {
+        TypedQuery<Object[]> query = em.createNamedQuery(name, Object[].class);
+        query.setParameter("manager", manager.getId());
+
+        if (bound != null) {
+            query.setParameter("bound", bound);
+        }
 
-        getEmployeesByManager(manager).forEach(user -> {
-            userDTOs.add(new UserDTO(user));
-        });
-        System.out.println(userDTOs);
-        return userDTOs;
+        return query.getResultList();
     }
 
 }
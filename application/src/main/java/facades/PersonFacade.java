@@ -7,12 +7,16 @@ import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.PersonNotFoundException;
 import errorhandling.exceptions.SanitizationException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
+import utils.Cursor;
+import utils.RequestEntityManager;
 import static utils.sanitizer.Person.sanitizeFirstname;
 import static utils.sanitizer.Person.sanitizeLastname;
 import static utils.sanitizer.Person.sanitizeMiddlename;
@@ -40,11 +44,15 @@ public class PersonFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<Person> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Person.getAll");
@@ -56,9 +64,34 @@ public class PersonFacade {
     }
 
     public List<PersonDTO> getAllDTOs() {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            return em.createNamedQuery("Person.getDTOs", PersonDTO.class).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    public List<Person> getPage(String cursor, int limit) throws SanitizationException {
+        UUID afterId = Cursor.decodeId(cursor);
+        EntityManager em = getReadEntityManager();
+
+        try {
+            Query query = em.createNamedQuery("Person.getPage");
+            query.setParameter("id", afterId);
+            query.setMaxResults(limit);
+
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    public List<PersonDTO> getPageDTOs(String cursor, int limit) throws SanitizationException {
         List<PersonDTO> dtos = new ArrayList<>();
 
-        getAll().forEach(person -> {
+        getPage(cursor, limit).forEach(person -> {
             dtos.add(new PersonDTO(person));
         });
 
@@ -66,15 +99,19 @@ public class PersonFacade {
     }
 
     public Person getById(UUID id) throws PersonNotFoundException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
-        Person person = em.find(Person.class, id.toString());
+        try {
+            Person person = em.find(Person.class, id);
 
-        if (person == null) {
-            throw new PersonNotFoundException();
-        }
+            if (person == null) {
+                throw new PersonNotFoundException();
+            }
 
-        return person;
+            return person;
+        } finally {
+            em.close();
+        }
     }
 
     public PersonDTO getDTOById(UUID id) throws PersonNotFoundException {
@@ -82,132 +119,110 @@ public class PersonFacade {
     }
 
     public List<Person> getAllByName(String firstname, String middlename, String lastname) throws SanitizationException {
-        EntityManager em = getEntityManager();
+        return search(firstname, middlename, lastname, false, null, 0);
+    }
 
-        if (!firstname.isEmpty() && middlename.isEmpty() && lastname.isEmpty()) {
-            // Only firstname provided
-            firstname = sanitizeFirstname(firstname);
+    public List<PersonDTO> getAllDTOsByName(String firstname, String middlename, String lastname) throws SanitizationException {
+        List<PersonDTO> dtos = new ArrayList<>();
 
-            try {
-                Query query = em.createNamedQuery("Person.getByFirstname");
-                query.setParameter("firstname", firstname.toUpperCase());
+        getAllByName(firstname, middlename, lastname).forEach(person -> {
+            dtos.add(new PersonDTO(person));
+        });
 
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (!firstname.isEmpty() && !middlename.isEmpty() && lastname.isEmpty()) {
-            // Firstname and middlename provided
-            firstname = sanitizeFirstname(firstname);
-            middlename = sanitizeMiddlename(middlename);
-
-            try {
-                Query query = em.createNamedQuery("Person.getByFirstnameAndMiddlename");
-                query.setParameter("firstname", firstname);
-                query.setParameter("middlename", middlename);
-
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (!firstname.isEmpty() && middlename.isEmpty() && !lastname.isEmpty()) {
-            // Firstname and lastname provided
-            firstname = sanitizeFirstname(firstname);
-            lastname = sanitizeLastname(lastname);
-
-            try {
-                Query query = em.createNamedQuery("Person.getByFirstnameAndLastname");
-                query.setParameter("firstname", firstname);
-                query.setParameter("lastname", lastname);
-
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (!firstname.isEmpty() && !middlename.isEmpty() && !lastname.isEmpty()) {
-            // Fullname provided
-            firstname = sanitizeFirstname(firstname);
-            middlename = sanitizeMiddlename(middlename);
-            lastname = sanitizeLastname(lastname);
-
-            try {
-                Query query = em.createNamedQuery("Person.getByFullname");
-                query.setParameter("firstname", firstname);
-                query.setParameter("middlename", middlename);
-                query.setParameter("lastname", lastname);
-
-                System.out.println(query);
-
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (firstname.isEmpty() && !middlename.isEmpty() && lastname.isEmpty()) {
-            // Only middlename provided
-            middlename = sanitizeMiddlename(middlename);
+        return dtos;
+    }
 
-            try {
-                Query query = em.createNamedQuery("Person.getByMiddlename");
-                query.setParameter("middlename", middlename);
+    /**
+     * Finds persons by any combination of first-, middle- and lastname in a
+     * single query against the normalized name columns. Empty or missing
+     * names are left out of the query.
+     *
+     * @param firstname Firstname, may be empty
+     * @param middlename Middlename, may be empty
+     * @param lastname Lastname, may be empty
+     * @param prefix Whether the names are prefixes rather than whole names
+     * @param cursor Cursor returned with the previous page, or null
+     * @param limit Maximum number of results, or 0 for all
+     * @return Matching persons ordered by id, or an empty list when no names
+     * are provided
+     * @throws SanitizationException
+     */
+    public List<Person> search(String firstname, String middlename, String lastname, boolean prefix, String cursor, int limit) throws SanitizationException {
+        Map<String, String> names = new LinkedHashMap<>();
+
+        if (!isMissing(firstname)) {
+            names.put("normalizedFirstname", sanitizeFirstname(firstname));
+        }
 
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (firstname.isEmpty() && !middlename.isEmpty() && !lastname.isEmpty()) {
-            // Middlename and lastname provided
-            middlename = sanitizeMiddlename(middlename);
-            lastname = sanitizeLastname(lastname);
-
-            try {
-                Query query = em.createNamedQuery("Person.getByMiddlenameAndLastname");
-                query.setParameter("middlename", middlename);
-                query.setParameter("lastname", lastname);
-
-                return query.getResultList();
-            } finally {
-                em.close();
-            }
-        } else if (firstname.isEmpty() && middlename.isEmpty() && !lastname.isEmpty()) {
-            // Only lastname provided
-            lastname = sanitizeLastname(lastname);
+        if (!isMissing(middlename)) {
+            names.put("normalizedMiddlename", sanitizeMiddlename(middlename));
+        }
+
+        if (!isMissing(lastname)) {
+            names.put("normalizedLastname", sanitizeLastname(lastname));
+        }
+
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        UUID afterId = Cursor.decodeId(cursor);
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Person p WHERE p.id > :id");
+
+        // Sanitized names cannot contain LIKE wildcards, so a prefix only needs the trailing %
+        names.keySet().forEach(column -> {
+            jpql.append(String.format(" AND p.%s %s :%s", column, prefix ? "LIKE" : "=", column));
+        });
 
-            em = getEntityManager();
+        jpql.append(" ORDER BY p.id ASC");
 
-            try {
-                Query query = em.createNamedQuery("Person.getByLastname");
-                query.setParameter("lastname", lastname);
+        EntityManager em = getReadEntityManager();
 
-                return query.getResultList();
-            } finally {
-                em.close();
+        try {
+            Query query = em.createQuery(jpql.toString());
+            query.setParameter("id", afterId);
+
+            names.forEach((column, name) -> {
+                String normalized = Person.normalizeName(name);
+                query.setParameter(column, prefix ? normalized + "%" : normalized);
+            });
+
+            if (limit > 0) {
+                query.setMaxResults(limit);
             }
-        }
 
-        // No names provided
-        return new ArrayList<>();
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
     }
 
-    public List<PersonDTO> getAllDTOsByName(String firstname, String middlename, String lastname) throws SanitizationException {
+    public List<PersonDTO> searchDTOs(String firstname, String middlename, String lastname, boolean prefix, String cursor, int limit) throws SanitizationException {
         List<PersonDTO> dtos = new ArrayList<>();
 
-        getAllByName(firstname, middlename, lastname).forEach(person -> {
+        search(firstname, middlename, lastname, prefix, cursor, limit).forEach(person -> {
             dtos.add(new PersonDTO(person));
         });
 
         return dtos;
     }
 
+    private boolean isMissing(String name) {
+        return name == null || name.isEmpty();
+    }
+
     public Person getByUser(User user) throws PersonNotFoundException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Person.getByUser");
-            query.setParameter("user_id", user.getId().toString());
+            query.setParameter("user_id", user.getId());
 
             return (Person) query.getSingleResult();
         } catch (NoResultException e) {
             throw new PersonNotFoundException();
+        } finally {
+            em.close();
         }
     }
 
@@ -238,6 +253,8 @@ public class PersonFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
@@ -10,6 +10,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
+import utils.RequestEntityManager;
 import static utils.sanitizer.Role.sanitizeType;
 
 /**
@@ -34,12 +35,12 @@ public class RoleFacade {
         return instance;
     }
 
-    private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
     }
 
     public List<Role> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Role.getAll");
@@ -63,7 +64,7 @@ public class RoleFacade {
     public Role getByType(String type) throws RoleNotFoundException, SanitizationException {
         type = sanitizeType(type);
 
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Role.getByType");
@@ -82,7 +83,7 @@ public class RoleFacade {
     }
 
     public List<Role> getAllDefaults() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("Role.getDefaults");
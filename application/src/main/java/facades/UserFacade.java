@@ -1,6 +1,7 @@
 package facades;
 
 import com.mashape.unirest.http.exceptions.UnirestException;
+import dtos.RoleDTO;
 import dtos.UserDTO;
 import entities.Company;
 import entities.Person;
@@ -11,13 +12,21 @@ import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.SanitizationException;
 import errorhandling.exceptions.UserCreationException;
 import errorhandling.exceptions.UserNotFoundException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import utils.Cursor;
+import utils.JsonExport;
+import utils.RequestEntityManager;
 import static utils.sanitizer.User.sanitizeEmail;
 import static utils.sanitizer.User.sanitizePassword;
 
@@ -31,6 +40,9 @@ public class UserFacade {
     private static UserFacade instance = null;
     private static RoleFacade roleFacade = null;
 
+    // Keeps the IN list of the role lookup well below the prepared statement parameter limit
+    private static final int ROLE_LOOKUP_CHUNK_SIZE = 1000;
+
     private UserFacade() {
         // private to ensure singleton
     }
@@ -46,11 +58,19 @@ public class UserFacade {
     }
 
     private EntityManager getEntityManager() {
-        return emf.createEntityManager();
+        return RequestEntityManager.getEntityManager(emf);
+    }
+
+    private EntityManager getReadEntityManager() {
+        return RequestEntityManager.getReadEntityManager(emf);
+    }
+
+    private EntityManager getExportEntityManager() {
+        return RequestEntityManager.getExportEntityManager(emf);
     }
 
     public List<User> getAll() {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("User.getAll");
@@ -62,9 +82,88 @@ public class UserFacade {
     }
 
     public List<UserDTO> getAllDTOs() {
+        EntityManager em = getReadEntityManager();
+
+        try {
+            return getDTOs(em, em.createNamedQuery("User.getDTOs", UserDTO.class));
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Runs a SELECT NEW UserDTO projection and adds the roles with one more
+     * query, so list endpoints never materialize User entities.
+     *
+     * @param em EntityManager the query belongs to
+     * @param query Projection query producing UserDTOs without roles
+     * @return The DTOs with their roles
+     */
+    List<UserDTO> getDTOs(EntityManager em, TypedQuery<UserDTO> query) {
+        return addRoles(em, query.getResultList());
+    }
+
+    /**
+     * Streams every user as a DTO, see JsonExport.
+     *
+     * @param consumer Receives every user
+     */
+    public void exportDTOs(Consumer<UserDTO> consumer) {
+        EntityManager em = getExportEntityManager();
+
+        try {
+            JsonExport.<UserDTO>forEachChunk(em.createNamedQuery("User.getDTOs"), chunk -> {
+                addRoles(em, chunk).forEach(consumer);
+            });
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<UserDTO> addRoles(EntityManager em, List<UserDTO> userDTOs) {
+        if (userDTOs.isEmpty()) {
+            return userDTOs;
+        }
+
+        Map<UUID, UserDTO> userDTOsById = new HashMap<>();
+        userDTOs.forEach(userDTO -> {
+            userDTOsById.put(userDTO.getId(), userDTO);
+        });
+
+        List<UUID> ids = new ArrayList<>(userDTOsById.keySet());
+
+        for (int i = 0; i < ids.size(); i += ROLE_LOOKUP_CHUNK_SIZE) {
+            List<Object[]> roles = em.createNamedQuery("User.getRolesByIds", Object[].class)
+                    .setParameter("ids", ids.subList(i, Math.min(i + ROLE_LOOKUP_CHUNK_SIZE, ids.size())))
+                    .getResultList();
+
+            roles.forEach(role -> {
+                userDTOsById.get((UUID) role[0]).addRoleDTO(new RoleDTO((String) role[1], (Boolean) role[2]));
+            });
+        }
+
+        return userDTOs;
+    }
+
+    public List<User> getPage(String cursor, int limit) throws SanitizationException {
+        UUID afterId = Cursor.decodeId(cursor);
+        EntityManager em = getReadEntityManager();
+
+        try {
+            Query query = em.createNamedQuery("User.getPage");
+            query.setParameter("id", afterId);
+            query.setMaxResults(limit);
+
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    public List<UserDTO> getPageDTOs(String cursor, int limit) throws SanitizationException {
         List<UserDTO> dtos = new ArrayList<>();
 
-        getAll().forEach(user -> {
+        getPage(cursor, limit).forEach(user -> {
             dtos.add(new UserDTO(user));
         });
 
@@ -72,15 +171,19 @@ public class UserFacade {
     }
 
     public User getById(UUID id) throws UserNotFoundException {
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
-        User user = em.find(User.class, id.toString());
+        try {
+            User user = em.find(User.class, id);
 
-        if (user == null) {
-            throw new UserNotFoundException();
-        }
+            if (user == null) {
+                throw new UserNotFoundException();
+            }
 
-        return user;
+            return user;
+        } finally {
+            em.close();
+        }
     }
 
     public UserDTO getDTOById(UUID id) throws UserNotFoundException, UnirestException {
@@ -92,11 +195,11 @@ public class UserFacade {
     public User getByEmail(String email) throws UserNotFoundException, SanitizationException {
         email = sanitizeEmail(email);
 
-        EntityManager em = getEntityManager();
+        EntityManager em = getReadEntityManager();
 
         try {
             Query query = em.createNamedQuery("User.getByEmail");
-            query.setParameter("email", email.toUpperCase());
+            query.setParameter("email", User.normalizeEmail(email));
 
             return (User) query.getSingleResult();
         } catch (NoResultException e) {
@@ -167,6 +270,8 @@ public class UserFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
@@ -191,6 +296,8 @@ public class UserFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
 
     }
@@ -210,6 +317,8 @@ public class UserFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
@@ -229,6 +338,8 @@ public class UserFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
         }
     }
 
@@ -249,7 +360,56 @@ public class UserFacade {
             }
 
             throw new DatabaseException();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Clears up to limit recovery codes that have expired.
+     *
+     * @param limit Maximum number of users to clear
+     * @return Number of users cleared
+     * @throws DatabaseException If the codes could not be cleared
+     */
+    public int clearExpiredRecoveryCodes(int limit) throws DatabaseException {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> ids;
+        int cleared;
+
+        EntityManager em = getEntityManager();
+
+        try {
+            ids = em.createNamedQuery("User.getIdsWithExpiredRecoveryCode", UUID.class)
+                    .setParameter("now", now)
+                    .setMaxResults(limit)
+                    .getResultList();
+
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            em.getTransaction().begin();
+            cleared = em.createNamedQuery("User.clearRecoveryCodes")
+                    .setParameter("ids", ids)
+                    .setParameter("now", now)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            throw new DatabaseException();
+        } finally {
+            em.close();
         }
+
+        ids.forEach(id -> {
+            emf.getCache().evict(User.class, id);
+        });
+
+        return cleared;
     }
 
 }
@@ -16,6 +16,7 @@ public class ApplicationConfig extends Application {
     public Set<Class<?>> getClasses() {
         Set<Class<?>> resources = new HashSet<>();
         addRestResourceClasses(resources);
+        security.SecurityMetadata.register(resources);
 
         return resources;
     }
@@ -30,6 +31,7 @@ public class ApplicationConfig extends Application {
         resources.add(errorhandling.mappers.CompanyStatusNotFoundExceptionMapper.class);
         resources.add(errorhandling.mappers.CompanyStatusTypeNotFoundExceptionMapper.class);
         resources.add(errorhandling.mappers.GenericExceptionMapper.class);
+        resources.add(errorhandling.mappers.InterviewConflictExceptionMapper.class);
         resources.add(errorhandling.mappers.NotAuthorizedExceptionMapper.class);
         resources.add(errorhandling.mappers.PersonNotFoundExceptionMapper.class);
         resources.add(errorhandling.mappers.RoleNotFoundExceptionMapper.class);
@@ -45,11 +47,13 @@ public class ApplicationConfig extends Application {
         resources.add(rest.InterviewResource.class);
         resources.add(rest.InterviewTemplateResource.class);
         resources.add(rest.ManagerResource.class);
+        resources.add(rest.MetricsResource.class);
         resources.add(rest.PersonResource.class);
         resources.add(rest.RoleResource.class);
         resources.add(rest.UserResource.class);
+        resources.add(utils.BackgroundJobs.class);
         resources.add(security.JWTAuthenticationFilter.class);
-        resources.add(security.RolesAllowedFilter.class);
+        resources.add(utils.RequestEntityManagerFilter.class);
 
     }
 }
@@ -28,15 +28,20 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import org.json.JSONException;
+import utils.Cursor;
 import utils.EMF_Creator;
 import utils.GoogleRecaptcha;
+import utils.JsonExport;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -61,12 +66,28 @@ public class CompanyResource {
     @Path("all")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
-    public Response getAll() {
-        List<CompanyDTO> companyDTOs = COMPANY_FACADE.getAllDTOs();
+    public Response getAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException {
+        int pageLimit = sanitizeLimit(limit);
+        List<CompanyDTO> companyDTOs = COMPANY_FACADE.getPageDTOs(after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(companyDTOs))
+                .header(Cursor.HEADER, Cursor.nextById(companyDTOs, pageLimit, CompanyDTO::getId))
+                .build();
+    }
+
+    @GET
+    @Path("export")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response export() {
+        // Written straight to the response while the rows are read, see JsonExport
+        StreamingOutput companies = JsonExport.toJsonArray(GSON, CompanyDTO.class, COMPANY_FACADE::exportDTOs);
+
+        return Response
+                .status(Status.OK)
+                .entity(companies)
                 .build();
     }
 
@@ -23,10 +23,13 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import utils.Cursor;
 import utils.EMF_Creator;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -46,12 +49,14 @@ public class CompanyStatusResource {
     @Path("all")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
-    public Response getAll() {
-        List<CompanyStatusDTO> companyStatusDTOs = COMPANY_STATUS_FACADE.getAllDTOs();
+    public Response getAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException {
+        int pageLimit = sanitizeLimit(limit);
+        List<CompanyStatusDTO> companyStatusDTOs = COMPANY_STATUS_FACADE.getPageDTOs(after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(companyStatusDTOs))
+                .header(Cursor.HEADER, Cursor.nextById(companyStatusDTOs, pageLimit, CompanyStatusDTO::getId))
                 .build();
     }
 
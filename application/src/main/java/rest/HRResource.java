@@ -2,19 +2,38 @@ package rest;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import dtos.InterviewDTO;
+import dtos.InterviewScheduleDTO;
+import dtos.InterviewScheduleResultDTO;
+import dtos.InterviewStatisticDTO;
 import entities.Company;
+import entities.InterviewTemplate;
 import entities.User;
 import errorhandling.exceptions.API_Exception;
+import errorhandling.exceptions.CompanyNotFoundException;
+import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.GoogleRecaptchaException;
+import errorhandling.exceptions.InterviewNotFoundException;
+import errorhandling.exceptions.InterviewTemplateNotFoundException;
 import errorhandling.exceptions.SanitizationException;
 import errorhandling.exceptions.UserNotFoundException;
 import facades.CompanyFacade;
+import facades.InterviewArchiveFacade;
 import facades.InterviewFacade;
+import facades.InterviewStatisticFacade;
+import facades.InterviewTemplateFacade;
 import facades.UserFacade;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import javax.annotation.security.RolesAllowed;
@@ -23,7 +42,9 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -31,8 +52,10 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import org.json.JSONException;
+import utils.Cursor;
 import utils.EMF_Creator;
 import utils.GoogleRecaptcha;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -45,6 +68,12 @@ public class HRResource {
     private static final InterviewFacade INTERVIEW_FACADE = InterviewFacade.getInterviewFacade(EMF);
     private static final UserFacade USER_FACADE = UserFacade.getUserFacade(EMF);
     private static final CompanyFacade COMPANY_FACADE = CompanyFacade.getCompanyFacade(EMF);
+    private static final InterviewArchiveFacade INTERVIEW_ARCHIVE_FACADE = InterviewArchiveFacade.getInterviewArchiveFacade(EMF);
+    private static final InterviewTemplateFacade INTERVIEW_TEMPLATE_FACADE = InterviewTemplateFacade.getInterviewTemplateFacade(EMF);
+    private static final InterviewStatisticFacade INTERVIEW_STATISTIC_FACADE = InterviewStatisticFacade.getInterviewStatisticFacade(EMF);
+
+    private static final int BULK_LIMIT = 5000;
+    private static final int STATISTICS_DEFAULT_MONTHS = 12;
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
@@ -58,7 +87,7 @@ public class HRResource {
     @Path("interviews/upcoming")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("HR")
-    public Response getUpcoming() throws SanitizationException, UserNotFoundException {
+    public Response getUpcoming(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -71,11 +100,14 @@ public class HRResource {
         User user = USER_FACADE.getById(userID);
         Company company = user.getCompany();
 
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getUpcomingDTOsByCompany(company);
+        int pageLimit = sanitizeLimit(limit);
+
+        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getUpcomingDTOsByCompany(company, after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(interviewDTOs))
+                .header(Cursor.HEADER, INTERVIEW_FACADE.getNextCursor(interviewDTOs, pageLimit))
                 .build();
     }
 
@@ -83,7 +115,7 @@ public class HRResource {
     @Path("interviews/previous")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("HR")
-    public Response getPrevious() throws SanitizationException, UserNotFoundException {
+    public Response getPrevious(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -96,11 +128,122 @@ public class HRResource {
         User user = USER_FACADE.getById(userID);
         Company company = user.getCompany();
 
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getPreviousDTOsByCompany(company);
+        int pageLimit = sanitizeLimit(limit);
+
+        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getPreviousDTOsByCompany(company, after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(interviewDTOs))
+                .header(Cursor.HEADER, INTERVIEW_FACADE.getNextCursor(interviewDTOs, pageLimit))
+                .build();
+    }
+
+    @GET
+    @Path("interviews/archived")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("HR")
+    public Response getArchived(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
+        UUID userID;
+        String id = securityContext.getUserPrincipal().getName();
+
+        try {
+            userID = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid UUID");
+        }
+
+        User user = USER_FACADE.getById(userID);
+        Company company = user.getCompany();
+
+        int pageLimit = sanitizeLimit(limit);
+
+        List<InterviewDTO> interviewDTOs = INTERVIEW_ARCHIVE_FACADE.getDTOsByCompany(company, after, pageLimit);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(interviewDTOs))
+                .header(Cursor.HEADER, INTERVIEW_ARCHIVE_FACADE.getNextCursor(interviewDTOs, pageLimit))
+                .build();
+    }
+
+    @GET
+    @Path("interviews/archived/{id}")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("HR")
+    public Response getArchivedById(@PathParam("id") String idString) throws SanitizationException, UserNotFoundException, InterviewNotFoundException {
+        UUID userID, interviewID;
+
+        try {
+            userID = UUID.fromString(securityContext.getUserPrincipal().getName());
+            interviewID = UUID.fromString(idString);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid UUID");
+        }
+
+        User user = USER_FACADE.getById(userID);
+        InterviewDTO interviewDTO = INTERVIEW_ARCHIVE_FACADE.getDTOById(user.getCompany(), interviewID);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(interviewDTO))
+                .build();
+    }
+
+    @POST
+    @Path("interviews/archived/{id}/restore")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("HR")
+    public Response restoreArchived(@PathParam("id") String idString) throws SanitizationException, UserNotFoundException, InterviewNotFoundException, InterviewTemplateNotFoundException, CompanyNotFoundException, DatabaseException {
+        UUID userID, interviewID;
+
+        try {
+            userID = UUID.fromString(securityContext.getUserPrincipal().getName());
+            interviewID = UUID.fromString(idString);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid UUID");
+        }
+
+        User user = USER_FACADE.getById(userID);
+        InterviewDTO interviewDTO = INTERVIEW_ARCHIVE_FACADE.restore(user.getCompany(), interviewID);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(interviewDTO))
+                .build();
+    }
+
+    @GET
+    @Path("statistics")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("HR")
+    public Response getStatistics(@QueryParam("from") String fromString, @QueryParam("to") String toString) throws SanitizationException, UserNotFoundException {
+        UUID userID;
+        YearMonth from, to;
+
+        try {
+            userID = UUID.fromString(securityContext.getUserPrincipal().getName());
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid UUID");
+        }
+
+        try {
+            to = toString == null ? YearMonth.now() : YearMonth.parse(toString);
+            from = fromString == null ? to.minusMonths(STATISTICS_DEFAULT_MONTHS - 1) : YearMonth.parse(fromString);
+        } catch (DateTimeParseException e) {
+            throw new SanitizationException("Invalid month");
+        }
+
+        if (from.isAfter(to)) {
+            throw new SanitizationException("Invalid month range");
+        }
+
+        User user = USER_FACADE.getById(userID);
+        List<InterviewStatisticDTO> statisticDTOs = INTERVIEW_STATISTIC_FACADE.getDTOsByCompany(user.getCompany(), from, to);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(statisticDTOs))
                 .build();
     }
 
@@ -145,4 +288,71 @@ public class HRResource {
                 .build();
     }
 
+    @POST
+    @Path("interviews/bulk")
+    @Produces(APPLICATION_JSON)
+    @Consumes(APPLICATION_JSON)
+    @RolesAllowed("HR")
+    public Response scheduleInterviews(String jsonString) throws API_Exception, SanitizationException, UserNotFoundException, InterviewTemplateNotFoundException, GoogleRecaptchaException {
+        UUID userID, templateId;
+        JsonArray rows;
+
+        // Google Recaptcha, once for the whole batch
+        GoogleRecaptcha.verify(requestContext);
+
+        try {
+            userID = UUID.fromString(securityContext.getUserPrincipal().getName());
+            JsonObject jsonObject = JsonParser.parseString(jsonString).getAsJsonObject();
+            templateId = UUID.fromString(jsonObject.get("template").getAsString());
+            rows = jsonObject.get("interviews").getAsJsonArray();
+        } catch (JsonSyntaxException | NullPointerException | IllegalStateException | IllegalArgumentException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw new SanitizationException("Invalid UUID");
+            }
+
+            throw new API_Exception();
+        }
+
+        if (rows.size() > BULK_LIMIT) {
+            throw new SanitizationException("Too many interviews");
+        }
+
+        List<InterviewScheduleDTO> schedules = new ArrayList<>();
+        List<InterviewScheduleResultDTO> results = new ArrayList<>();
+
+        for (int index = 0; index < rows.size(); index++) {
+            try {
+                JsonObject row = rows.get(index).getAsJsonObject();
+                UUID managerId = UUID.fromString(row.get("manager_id").getAsString());
+                UUID employeeId = UUID.fromString(row.get("user_id").getAsString());
+                LocalDateTime held = LocalDateTime.of(LocalDate.parse(row.get("date").getAsString()), LocalTime.parse(row.get("time").getAsString()));
+
+                schedules.add(new InterviewScheduleDTO(index, managerId, employeeId, held));
+            } catch (NullPointerException | IllegalStateException | IllegalArgumentException | DateTimeParseException e) {
+                results.add(new InterviewScheduleResultDTO(index, Status.BAD_REQUEST.getStatusCode(), null, "Ugyldig samtale."));
+            }
+        }
+
+        User user = USER_FACADE.getById(userID);
+        Company company = user.getCompany();
+        InterviewTemplate interviewTemplate = INTERVIEW_TEMPLATE_FACADE.getById(templateId);
+
+        results.addAll(INTERVIEW_FACADE.createAll(interviewTemplate, company, schedules));
+        results.sort(Comparator.comparingInt(InterviewScheduleResultDTO::getIndex));
+
+        long created = results.stream().filter(InterviewScheduleResultDTO::isCreated).count();
+
+        Status status = Status.OK;
+        String message = String.format("%d af %d samtaler oprettet.", created, rows.size());
+
+        JsonObject jsonResponse = new JsonObject();
+        jsonResponse.addProperty("status", status.getStatusCode());
+        jsonResponse.addProperty("message", message);
+        jsonResponse.add("results", GSON.toJsonTree(results));
+
+        return Response.status(status)
+                .entity(GSON.toJson(jsonResponse))
+                .build();
+    }
+
 }
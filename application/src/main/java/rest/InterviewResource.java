@@ -7,11 +7,13 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import dtos.InterviewDTO;
+import dtos.InterviewTimelineDTO;
 import entities.Interview;
 import entities.InterviewTemplate;
 import entities.User;
 import errorhandling.exceptions.API_Exception;
 import errorhandling.exceptions.DatabaseException;
+import errorhandling.exceptions.InterviewConflictException;
 import errorhandling.exceptions.GoogleRecaptchaException;
 import errorhandling.exceptions.InterviewNotFoundException;
 import errorhandling.exceptions.InterviewQuestionNotFoundException;
@@ -19,6 +21,7 @@ import errorhandling.exceptions.InterviewTemplateNotFoundException;
 import errorhandling.exceptions.SanitizationException;
 import errorhandling.exceptions.UserNotFoundException;
 import facades.InterviewFacade;
+import facades.InterviewTimelineFacade;
 import facades.InterviewTemplateFacade;
 import facades.UserFacade;
 import java.time.LocalDate;
@@ -39,14 +42,17 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
+import utils.Cursor;
 import utils.EMF_Creator;
 import utils.GoogleRecaptcha;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -58,6 +64,7 @@ public class InterviewResource {
     private static final EntityManagerFactory EMF = EMF_Creator.createEntityManagerFactory();
     private static final UserFacade USER_FACADE = UserFacade.getUserFacade(EMF);
     private static final InterviewFacade INTERVIEW_FACADE = InterviewFacade.getInterviewFacade(EMF);
+    private static final InterviewTimelineFacade INTERVIEW_TIMELINE_FACADE = InterviewTimelineFacade.getInterviewTimelineFacade(EMF);
     private static final InterviewTemplateFacade INTERVIEW_TEMPLATE_FACADE = InterviewTemplateFacade.getInterviewTemplateFacade(EMF);
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -72,7 +79,7 @@ public class InterviewResource {
     @Path("upcoming")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("USER")
-    public Response getUpcoming() throws SanitizationException, UserNotFoundException {
+    public Response getUpcoming(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -83,11 +90,13 @@ public class InterviewResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getUpcomingDTOsByUser(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getUpcomingDTOsByEmployee(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
                 .build();
     }
 
@@ -95,7 +104,7 @@ public class InterviewResource {
     @Path("upcoming/{user}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("USER")
-    public Response getUpcomingByUser(@PathParam("user") String userString) throws SanitizationException, UserNotFoundException {
+    public Response getUpcomingByUser(@PathParam("user") String userString, @QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
 
         try {
@@ -105,11 +114,13 @@ public class InterviewResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getUpcomingDTOsByUser(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getUpcomingDTOsByEmployee(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
                 .build();
     }
 
@@ -117,7 +128,7 @@ public class InterviewResource {
     @Path("previous")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("USER")
-    public Response getPrevious() throws SanitizationException, UserNotFoundException {
+    public Response getPrevious(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -128,11 +139,13 @@ public class InterviewResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getPreviousDTOsByUser(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getPreviousDTOsByEmployee(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
                 .build();
     }
 
@@ -140,7 +153,7 @@ public class InterviewResource {
     @Path("previous/{user}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("USER")
-    public Response getPreviousByUser(@PathParam("user") String userString) throws SanitizationException, UserNotFoundException {
+    public Response getPreviousByUser(@PathParam("user") String userString, @QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
 
         try {
@@ -150,11 +163,13 @@ public class InterviewResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = INTERVIEW_FACADE.getPreviousDTOsByUser(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getPreviousDTOsByEmployee(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
                 .build();
     }
 
@@ -287,10 +302,12 @@ public class InterviewResource {
     @Produces(APPLICATION_JSON)
     @Consumes(APPLICATION_JSON)
     @RolesAllowed("USER")
-    public Response update(@PathParam("id") String idString, String jsonString) throws SanitizationException, API_Exception, UserNotFoundException, InterviewNotFoundException, InterviewQuestionNotFoundException, DatabaseException, GoogleRecaptchaException {
+    public Response update(@PathParam("id") String idString, String jsonString) throws SanitizationException, API_Exception, UserNotFoundException, InterviewNotFoundException, InterviewQuestionNotFoundException, DatabaseException, GoogleRecaptchaException, InterviewConflictException {
         UUID userID, interviewID;
         Map<UUID, String> answersToQuestions = new HashMap<>();
+        Map<UUID, Long> answerVersions = new HashMap<>();
         String summary, tmpId, tmpAnswer;
+        Long version = null;
 
         // Google Recaptcha
         GoogleRecaptcha.verify(requestContext);
@@ -302,11 +319,20 @@ public class InterviewResource {
             JsonObject jsonObject = JsonParser.parseString(jsonString).getAsJsonObject();
             summary = jsonObject.get("summary").getAsString();
 
+            // Versions are optional, without them the last write wins
+            if (jsonObject.has("version") && !jsonObject.get("version").isJsonNull()) {
+                version = jsonObject.get("version").getAsLong();
+            }
+
             for (JsonElement answer : jsonObject.get("questions").getAsJsonArray()) {
                 tmpId = answer.getAsJsonObject().get("id").getAsString();
                 tmpAnswer = answer.getAsJsonObject().get("value").getAsString();
 
                 answersToQuestions.put(UUID.fromString(tmpId), tmpAnswer);
+
+                if (answer.getAsJsonObject().has("version") && !answer.getAsJsonObject().get("version").isJsonNull()) {
+                    answerVersions.put(UUID.fromString(tmpId), answer.getAsJsonObject().get("version").getAsLong());
+                }
             }
 
         } catch (JsonSyntaxException | NullPointerException | JsonException | IllegalArgumentException e) {
@@ -320,7 +346,7 @@ public class InterviewResource {
         User user = USER_FACADE.getById(userID);
         Interview interview = INTERVIEW_FACADE.getById(interviewID);
 
-        INTERVIEW_FACADE.update(interview, user, summary, answersToQuestions);
+        INTERVIEW_FACADE.update(interview, user, summary, version, answersToQuestions, answerVersions);
 
         Status status = Status.OK;
         String message = "Ændring gemt.";
@@ -37,6 +37,7 @@ import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import utils.EMF_Creator;
 import utils.GoogleRecaptcha;
+import utils.ReadYourWrites;
 
 /**
  *
@@ -156,6 +157,7 @@ public class InterviewTemplateResource {
     }
 
     @GET
+    @ReadYourWrites
     @Path("{template}/add_question/{question}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
@@ -187,6 +189,7 @@ public class InterviewTemplateResource {
     }
 
     @GET
+    @ReadYourWrites
     @Path("{template}/remove_question/{question}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
@@ -2,11 +2,13 @@ package rest;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import dtos.InterviewDTO;
+import dtos.EmployeeDashboardDTO;
+import dtos.InterviewTimelineDTO;
 import dtos.UserDTO;
 import entities.User;
 import errorhandling.exceptions.SanitizationException;
 import errorhandling.exceptions.UserNotFoundException;
+import facades.InterviewTimelineFacade;
 import facades.ManagerFacade;
 import facades.UserFacade;
 import java.util.ArrayList;
@@ -18,12 +20,15 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
+import utils.Cursor;
 import utils.EMF_Creator;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -34,6 +39,7 @@ public class ManagerResource {
 
     private static final EntityManagerFactory EMF = EMF_Creator.createEntityManagerFactory();
     private static final ManagerFacade MANAGER_FACADE = ManagerFacade.getManagerFacade(EMF);
+    private static final InterviewTimelineFacade INTERVIEW_TIMELINE_FACADE = InterviewTimelineFacade.getInterviewTimelineFacade(EMF);
     private static final UserFacade USER_FACADE = UserFacade.getUserFacade(EMF);
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
@@ -45,7 +51,7 @@ public class ManagerResource {
     @Path("interviews/upcoming")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("MANAGER")
-    public Response getUpcoming() throws SanitizationException, UserNotFoundException {
+    public Response getUpcoming(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -56,11 +62,13 @@ public class ManagerResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = MANAGER_FACADE.getUpcomingsDTOsByManager(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getUpcomingDTOsByManager(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
                 .build();
     }
 
@@ -68,7 +76,7 @@ public class ManagerResource {
     @Path("interviews/previous")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("MANAGER")
-    public Response getPrevious() throws SanitizationException, UserNotFoundException {
+    public Response getPrevious(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException, UserNotFoundException {
         UUID userID;
         String id = securityContext.getUserPrincipal().getName();
 
@@ -79,11 +87,36 @@ public class ManagerResource {
         }
 
         User user = USER_FACADE.getById(userID);
-        List<InterviewDTO> interviewDTOs = MANAGER_FACADE.getProviousDTOsByManager(user);
+        int pageLimit = sanitizeLimit(limit);
+        List<InterviewTimelineDTO> timelineDTOs = INTERVIEW_TIMELINE_FACADE.getPreviousDTOsByManager(user, after, pageLimit);
 
         return Response
                 .status(Status.OK)
-                .entity(GSON.toJson(interviewDTOs))
+                .entity(GSON.toJson(timelineDTOs))
+                .header(Cursor.HEADER, INTERVIEW_TIMELINE_FACADE.getNextCursor(timelineDTOs, pageLimit))
+                .build();
+    }
+
+    @GET
+    @Path("dashboard")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("MANAGER")
+    public Response getDashboard() throws SanitizationException, UserNotFoundException {
+        UUID userID;
+        String id = securityContext.getUserPrincipal().getName();
+
+        try {
+            userID = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid UUID");
+        }
+
+        User user = USER_FACADE.getById(userID);
+        List<EmployeeDashboardDTO> dashboard = MANAGER_FACADE.getDashboard(user);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(dashboard))
                 .build();
     }
 
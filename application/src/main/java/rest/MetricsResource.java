@@ -0,0 +1,86 @@
+package rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dtos.CacheMetricsDTO;
+import dtos.ConnectionPoolMetricsDTO;
+import dtos.EntityManagerMetricsDTO;
+import dtos.SweepMetricsDTO;
+import java.util.List;
+import javax.annotation.security.RolesAllowed;
+import javax.persistence.EntityManagerFactory;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import utils.BackgroundJobs;
+import utils.EMF_Creator;
+import utils.ReferenceDataCache;
+import utils.RequestEntityManager;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+@Path("metrics")
+public class MetricsResource {
+
+    private static final EntityManagerFactory EMF = EMF_Creator.createEntityManagerFactory();
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @GET
+    @Path("pool")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response getConnectionPool() {
+        ConnectionPoolMetricsDTO metrics = EMF_Creator.getConnectionPoolMetrics();
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(metrics))
+                .build();
+    }
+
+    @GET
+    @Path("cache")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response getReferenceDataCache() {
+        List<CacheMetricsDTO> metrics = ReferenceDataCache.getMetrics(EMF);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(metrics))
+                .build();
+    }
+
+    @GET
+    @Path("entity-managers")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response getEntityManagers() {
+        EntityManagerMetricsDTO metrics = RequestEntityManager.getMetrics();
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(metrics))
+                .build();
+    }
+
+    @GET
+    @Path("sweep")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response getSweep() {
+        SweepMetricsDTO metrics = BackgroundJobs.getSweepMetrics();
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(metrics))
+                .build();
+    }
+
+}
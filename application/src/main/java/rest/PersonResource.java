@@ -17,10 +17,13 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import utils.Cursor;
 import utils.EMF_Creator;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -39,12 +42,14 @@ public class PersonResource {
     @Path("all")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
-    public Response getAll() {
-        List<PersonDTO> dtos = PERSON_FACADE.getAllDTOs();
+    public Response getAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException {
+        int pageLimit = sanitizeLimit(limit);
+        List<PersonDTO> dtos = PERSON_FACADE.getPageDTOs(after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(dtos))
+                .header(Cursor.HEADER, Cursor.nextById(dtos, pageLimit, PersonDTO::getId))
                 .build();
     }
 
@@ -69,6 +74,22 @@ public class PersonResource {
                 .build();
     }
 
+    @GET
+    @Path("find")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response find(@QueryParam("firstname") String firstname, @QueryParam("middlename") String middlename, @QueryParam("lastname") String lastname,
+            @QueryParam("prefix") boolean prefix, @QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException {
+        int pageLimit = sanitizeLimit(limit);
+        List<PersonDTO> dtos = PERSON_FACADE.searchDTOs(firstname, middlename, lastname, prefix, after, pageLimit);
+
+        return Response
+                .status(Status.OK)
+                .entity(GSON.toJson(dtos))
+                .header(Cursor.HEADER, Cursor.nextById(dtos, pageLimit, PersonDTO::getId))
+                .build();
+    }
+
     @GET
     @Path("find/firstname/{firstname}")
     @Produces(APPLICATION_JSON)
@@ -113,7 +134,6 @@ public class PersonResource {
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
     public Response getByFirstnameLastname(@PathParam("firstname") String firstname, @PathParam("lastname") String lastname) throws SanitizationException {
-        System.out.println("firstname=" + firstname + ", lastname=" + lastname);
         List<PersonDTO> personDTOs = PERSON_FACADE.getAllDTOsByName(firstname, "", lastname);
 
         return Response
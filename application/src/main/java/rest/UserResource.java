@@ -18,10 +18,16 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import utils.Cursor;
 import utils.EMF_Creator;
+import utils.JsonExport;
+import utils.ReadYourWrites;
+import static utils.sanitizer.Pagination.sanitizeLimit;
 
 /**
  *
@@ -39,12 +45,28 @@ public class UserResource {
     @Path("all")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("ADMIN")
-    public Response getAll() {
-        List<UserDTO> userDTOs = USER_FACADE.getAllDTOs();
+    public Response getAll(@QueryParam("after") String after, @QueryParam("limit") Integer limit) throws SanitizationException {
+        int pageLimit = sanitizeLimit(limit);
+        List<UserDTO> userDTOs = USER_FACADE.getPageDTOs(after, pageLimit);
 
         return Response
                 .status(Status.OK)
                 .entity(GSON.toJson(userDTOs))
+                .header(Cursor.HEADER, Cursor.nextById(userDTOs, pageLimit, UserDTO::getId))
+                .build();
+    }
+
+    @GET
+    @Path("export")
+    @Produces(APPLICATION_JSON)
+    @RolesAllowed("ADMIN")
+    public Response export() {
+        // Written straight to the response while the rows are read, see JsonExport
+        StreamingOutput users = JsonExport.toJsonArray(GSON, UserDTO.class, USER_FACADE::exportDTOs);
+
+        return Response
+                .status(Status.OK)
+                .entity(users)
                 .build();
     }
 
@@ -83,6 +105,7 @@ public class UserResource {
     }
 
     @GET
+    @ReadYourWrites
     @Path("{employee}/add_manager/{manager}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("HR")
@@ -116,6 +139,7 @@ public class UserResource {
     }
 
     @GET
+    @ReadYourWrites
     @Path("{employee}/remove_manager/{manager}")
     @Produces(APPLICATION_JSON)
     @RolesAllowed("HR")
@@ -5,21 +5,16 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import errorhandling.exceptions.JWTException;
 import facades.JWTFacade;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
-import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
 import javax.annotation.Priority;
-import javax.annotation.security.DenyAll;
-import javax.annotation.security.PermitAll;
-import javax.annotation.security.RolesAllowed;
 import javax.persistence.EntityManagerFactory;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.NotAuthorizedException;
 import javax.ws.rs.Priorities;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
@@ -42,10 +37,11 @@ public class JWTAuthenticationFilter implements ContainerRequestFilter {
     private static final EntityManagerFactory EMF = EMF_Creator.createEntityManagerFactory();
     private static final JWTFacade JWT_FACADE = JWTFacade.getJWTFacade(EMF);
 
-    private final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    // Roughly one entry per signed in user, tokens live 30 minutes
+    private static final int MAX_CACHED_PRINCIPALS = 10000;
+    private static final PrincipalCache PRINCIPALS = new PrincipalCache(MAX_CACHED_PRINCIPALS);
 
-    private static final List<Class<? extends Annotation>> securityAnnotations
-            = Arrays.asList(DenyAll.class, PermitAll.class, RolesAllowed.class);
+    private final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     @Context
     private ResourceInfo resourceInfo;
@@ -53,84 +49,105 @@ public class JWTAuthenticationFilter implements ContainerRequestFilter {
     @Context
     HttpServletRequest servletRequest;
 
+    /**
+     * Authenticates and authorizes the request in one pass, against the rule
+     * SecurityMetadata holds for the resource method.
+     */
     @Override
     public void filter(ContainerRequestContext request) throws IOException {
-        if (isSecuredResource()) {
-            String JWT = request.getHeaderString("Authentication");
-
-            if (JWT == null) {
-                Status status = Status.UNAUTHORIZED;
-                String message = status.getReasonPhrase();
-
-                JsonObject jsonResponse = new JsonObject();
-                jsonResponse.addProperty("status", status.getStatusCode());
-                jsonResponse.addProperty("message", message);
-
-                request.abortWith(Response.status(status)
-                        .entity(GSON.toJson(jsonResponse))
-                        .type(MediaType.APPLICATION_JSON)
-                        .build());
-                return;
-            }
+        SecurityMetadata.Rule rule = SecurityMetadata.get(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
 
-            try {
-                UserPrincipal userPrincipal = getUserPrincipalFromTokenIfValid(JWT);
-                request.setSecurityContext(new JWTSecurityContext(userPrincipal, request));
-            } catch (Exception e) {
-                Status status = Status.FORBIDDEN;
-                String message = status.getReasonPhrase();
-
-                JsonObject jsonResponse = new JsonObject();
-                jsonResponse.addProperty("status", status.getStatusCode());
-                jsonResponse.addProperty("message", message);
-
-                request.abortWith(Response.status(status)
-                        .entity(GSON.toJson(jsonResponse))
-                        .type(MediaType.APPLICATION_JSON)
-                        .build());
-            }
+        if (!rule.isSecured()) {
+            return;
         }
-    }
 
-    private boolean isSecuredResource() {
-        boolean isAnnotationPresentForMethod, isAnnotationPresentForClass;
+        String JWT = request.getHeaderString("Authentication");
 
-        for (Class<? extends Annotation> securityClass : securityAnnotations) {
-            isAnnotationPresentForMethod = resourceInfo.getResourceMethod().isAnnotationPresent(securityClass);
-            isAnnotationPresentForClass = resourceInfo.getResourceClass().isAnnotationPresent(securityClass);
+        if (JWT == null) {
+            Status status = Status.UNAUTHORIZED;
+            String message = status.getReasonPhrase();
 
-            if (isAnnotationPresentForMethod || isAnnotationPresentForClass) {
-                return true;
-            }
+            JsonObject jsonResponse = new JsonObject();
+            jsonResponse.addProperty("status", status.getStatusCode());
+            jsonResponse.addProperty("message", message);
+
+            request.abortWith(Response.status(status)
+                    .entity(GSON.toJson(jsonResponse))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
+        }
+
+        UserPrincipal userPrincipal;
+
+        try {
+            userPrincipal = getUserPrincipalFromTokenIfValid(JWT);
+        } catch (Exception e) {
+            Status status = Status.FORBIDDEN;
+            String message = status.getReasonPhrase();
+
+            JsonObject jsonResponse = new JsonObject();
+            jsonResponse.addProperty("status", status.getStatusCode());
+            jsonResponse.addProperty("message", message);
+
+            request.abortWith(Response.status(status)
+                    .entity(GSON.toJson(jsonResponse))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build());
+            return;
         }
 
-        return false;
+        if (!rule.isAllowed(userPrincipal)) {
+            throw new NotAuthorizedException(Status.FORBIDDEN.getReasonPhrase(), Status.FORBIDDEN);
+        }
+
+        request.setSecurityContext(new JWTSecurityContext(userPrincipal, request));
     }
 
     private UserPrincipal getUserPrincipalFromTokenIfValid(String JWT) throws java.text.ParseException, JOSEException, JWTException {
+        KeyRing keyRing = KeyRing.getKeyRing();
+        PrincipalCache.Entry cached = PRINCIPALS.get(JWT);
+
+        // Verified before and not expired yet, only revocation and the key retiring can have changed
+        if (cached != null && keyRing.getVerifier(cached.getKeyId()) != null) {
+            if (JWT_FACADE.isRevoked(cached.getTokenId())) {
+                throw new JWTException("Token revoked");
+            }
+
+            return cached.getPrincipal();
+        }
+
         SignedJWT signedJWT = SignedJWT.parse(JWT);
-        JWSVerifier verifier = new MACVerifier(SharedSecret.getSecretKey());
 
-        if (signedJWT.verify(verifier)) {
+        // Verified with the key named by the kid header, unknown and retired keys are rejected
+        String keyId = signedJWT.getHeader().getKeyID();
+        JWSVerifier verifier = keyRing.getVerifier(keyId);
+
+        if (verifier != null && signedJWT.verify(verifier)) {
+            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+
             long currentTime = new Date().getTime();
-            long JWTExpirationTime = signedJWT.getJWTClaimsSet().getExpirationTime().getTime();
+            long JWTExpirationTime = claimsSet.getExpirationTime().getTime();
 
             if (currentTime > JWTExpirationTime) {
                 // Token is expired
                 throw new JWTException("Token expired");
             }
 
-            String jwtID = signedJWT.getJWTClaimsSet().getClaim("token_id").toString();
+            String jwtID = claimsSet.getClaim("token_id").toString();
 
             boolean jwtIsRevoked = JWT_FACADE.isRevoked(jwtID);
             if (jwtIsRevoked) {
                 throw new JWTException("Token revoked");
             }
 
-            String[] roles = signedJWT.getJWTClaimsSet().getClaim("roles").toString().split(",");
-            String userID = signedJWT.getJWTClaimsSet().getClaim("user_id").toString();
+            String[] roles = claimsSet.getClaim("roles").toString().split(",");
+            String userID = claimsSet.getClaim("user_id").toString();
+
+            UserPrincipal userPrincipal = new UserPrincipal(userID, roles);
+            PRINCIPALS.put(JWT, userPrincipal, jwtID, keyId, JWTExpirationTime);
 
-            return new UserPrincipal(userID, roles);
+            return userPrincipal;
         } else {
             // Unable to extract user from token
             throw new JWTException("Unable to extract user from token");
@@ -0,0 +1,216 @@
+package security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The HMAC keys tokens are signed and verified with, shared by every node.
+ *
+ * Every key has an id, which is written to the kid header of the tokens it
+ * signs, so a token is verified with the key that signed it. New tokens are
+ * signed with one key, tokens signed by any other key in the ring are still
+ * accepted until that key retires.
+ *
+ * The keys are read once, from the first of these that is configured:
+ * JWT_KEYS, a comma separated list of kid:base64-key or
+ * kid:base64-key:retire-instant (ISO-8601, e.g. 2026-11-01T00:00:00Z), or
+ * JWT_KEYSTORE, a keystore file (type JWT_KEYSTORE_TYPE, PKCS12 by default,
+ * password JWT_KEYSTORE_PASSWORD) whose secret key entries are used under
+ * their alias. JWT_SIGNING_KEY names the key new tokens are signed with, by
+ * default the first one. Without either a random key is generated, and
+ * tokens are only valid on this node until it restarts.
+ *
+ * Rotating a key without rejecting tokens takes two deployments. First add
+ * the new key to every node. Once all nodes have it, make it the signing key
+ * and give the old key a retire time at least one token lifetime ahead.
+ * Remove the old key after it has retired.
+ *
+ * @author Nicklas Nielsen
+ */
+public class KeyRing {
+
+    // HS512 needs a key of at least 512 bits
+    private static final int MIN_KEY_BYTES = 64;
+
+    private static KeyRing instance = null;
+
+    private final Map<String, Key> keys;
+    private final Key signingKey;
+
+    KeyRing(List<Key> keys, String signingKeyId) {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No JWT keys configured");
+        }
+
+        this.keys = new LinkedHashMap<>();
+        keys.forEach(key -> {
+            this.keys.put(key.id, key);
+        });
+
+        signingKey = signingKeyId == null ? keys.get(0) : this.keys.get(signingKeyId);
+
+        if (signingKey == null) {
+            throw new IllegalStateException("Unknown JWT signing key " + signingKeyId);
+        }
+
+        if (signingKey.isRetired()) {
+            throw new IllegalStateException("JWT signing key " + signingKey.id + " has retired");
+        }
+    }
+
+    public static synchronized KeyRing getKeyRing() {
+        if (instance == null) {
+            instance = new KeyRing(load(), System.getenv("JWT_SIGNING_KEY"));
+        }
+
+        return instance;
+    }
+
+    public String getSigningKeyId() {
+        return signingKey.id;
+    }
+
+    /**
+     * @return Signer of the signing key
+     * @throws IllegalStateException If the signing key has retired since the
+     * key ring was loaded
+     */
+    public JWSSigner getSigner() {
+        if (signingKey.isRetired()) {
+            throw new IllegalStateException("JWT signing key " + signingKey.id + " has retired");
+        }
+
+        return signingKey.signer;
+    }
+
+    /**
+     * @param keyId Value of the token's kid header
+     * @return Verifier of the key, or null if the key is unknown or retired
+     */
+    public JWSVerifier getVerifier(String keyId) {
+        Key key = keyId == null ? null : keys.get(keyId);
+
+        if (key == null || key.isRetired()) {
+            return null;
+        }
+
+        return key.verifier;
+    }
+
+    private static List<Key> load() {
+        String configured = System.getenv("JWT_KEYS");
+        if (configured != null && !configured.trim().isEmpty()) {
+            return parse(configured);
+        }
+
+        String keystore = System.getenv("JWT_KEYSTORE");
+        if (keystore != null && !keystore.trim().isEmpty()) {
+            return loadKeystore(keystore, System.getenv("JWT_KEYSTORE_TYPE"), System.getenv("JWT_KEYSTORE_PASSWORD"));
+        }
+
+        System.out.println("No JWT keys configured, tokens are only valid on this node until it restarts");
+
+        byte[] secret = new byte[MIN_KEY_BYTES];
+        new SecureRandom().nextBytes(secret);
+
+        return Collections.singletonList(new Key("local", new SecretKeySpec(secret, "HmacSHA512"), null));
+    }
+
+    static List<Key> parse(String configured) {
+        List<Key> keys = new ArrayList<>();
+
+        for (String entry : configured.split(",")) {
+            String[] parts = entry.trim().split(":", 3);
+
+            if (parts.length < 2) {
+                throw new IllegalStateException("Invalid JWT key, expected kid:base64-key[:retire]");
+            }
+
+            try {
+                byte[] secret = Base64.getDecoder().decode(parts[1].trim());
+                Instant retire = parts.length == 3 ? Instant.parse(parts[2].trim()) : null;
+
+                keys.add(new Key(parts[0].trim(), new SecretKeySpec(secret, "HmacSHA512"), retire));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalStateException("Invalid JWT key " + parts[0].trim(), e);
+            }
+        }
+
+        return keys;
+    }
+
+    private static List<Key> loadKeystore(String path, String type, String password) {
+        List<Key> keys = new ArrayList<>();
+        char[] secret = password == null ? new char[0] : password.toCharArray();
+
+        try (InputStream in = new FileInputStream(path)) {
+            KeyStore keyStore = KeyStore.getInstance(type == null ? "PKCS12" : type);
+            keyStore.load(in, secret);
+
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                java.security.Key key = keyStore.getKey(alias, secret);
+
+                if (key instanceof SecretKey) {
+                    keys.add(new Key(alias, (SecretKey) key, null));
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to load JWT keystore " + path, e);
+        }
+
+        return keys;
+    }
+
+    static class Key {
+
+        private final String id;
+        private final Instant retire;
+        private final JWSSigner signer;
+        private final JWSVerifier verifier;
+
+        Key(String id, SecretKey secret, Instant retire) {
+            if (secret.getEncoded().length < MIN_KEY_BYTES) {
+                throw new IllegalStateException(String.format("JWT key %s is shorter than %d bytes", id, MIN_KEY_BYTES));
+            }
+
+            this.id = id;
+            this.retire = retire;
+
+            // Both are thread safe, so one of each is shared by every request
+            try {
+                signer = new MACSigner(secret);
+                verifier = new MACVerifier(secret);
+            } catch (JOSEException e) {
+                throw new IllegalStateException("Invalid JWT key " + id, e);
+            }
+        }
+
+        private boolean isRetired() {
+            return retire != null && Instant.now().isAfter(retire);
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals of tokens whose signature has already been verified, so a token
+ * presented again is neither parsed nor verified again until it expires.
+ *
+ * Entries are keyed by the SHA-256 hash of the token, never the token
+ * itself, and only live until the token's expiry time. The cache holds at
+ * most maximumSize entries: when it is full, expired entries are dropped, and
+ * if that is not enough the cache starts over. Revocation and key retirement
+ * are not cached, the caller checks the token id and the key id of every
+ * entry it gets.
+ *
+ * @author Nicklas Nielsen
+ */
+public class PrincipalCache {
+
+    private final int maximumSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param token Token as presented by the client
+     * @return The cached entry, or null if the token is unknown or expired
+     */
+    public Entry get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expire <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+
+        return entry;
+    }
+
+    /**
+     * @param token Token as presented by the client, already verified
+     * @param principal Principal built from the token's claims
+     * @param tokenId The token's token_id claim
+     * @param keyId The token's kid header
+     * @param expire The token's expiry time, in epoch milliseconds
+     */
+    public void put(String token, UserPrincipal principal, String tokenId, String keyId, long expire) {
+        if (entries.size() >= maximumSize) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expire <= now);
+
+            if (entries.size() >= maximumSize) {
+                entries.clear();
+            }
+        }
+
+        entries.put(hash(token), new Entry(principal, tokenId, keyId, expire));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Entry {
+
+        private final UserPrincipal principal;
+        private final String tokenId;
+        private final String keyId;
+        private final long expire;
+
+        private Entry(UserPrincipal principal, String tokenId, String keyId, long expire) {
+            this.principal = principal;
+            this.tokenId = tokenId;
+            this.keyId = keyId;
+            this.expire = expire;
+        }
+
+        public UserPrincipal getPrincipal() {
+            return principal;
+        }
+
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public long getExpire() {
+            return expire;
+        }
+
+    }
+
+}
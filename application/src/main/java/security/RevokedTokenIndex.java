@@ -0,0 +1,170 @@
+package security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In memory copy of the revoked token ids that have not expired yet.
+ *
+ * A lookup first asks a Bloom filter, which answers "not revoked" for almost
+ * every token without touching the exact set, and only on a hit checks the
+ * exact set of ids and their expiry times. Expired ids count as not revoked
+ * straight away, and are dropped whenever the index is replaced.
+ *
+ * Lookups never block. Adding an id and replacing the whole index (resync
+ * from the database) are serialized, so an id added while a resync is
+ * running is carried over into the new index.
+ *
+ * @author Nicklas Nielsen
+ */
+public class RevokedTokenIndex {
+
+    private volatile Snapshot snapshot = new Snapshot(new ConcurrentHashMap<>());
+    private volatile boolean loaded = false;
+
+    /**
+     * @return True once the index has been loaded from the database, before
+     * that it can not be trusted to answer
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean contains(String id) {
+        Snapshot current = snapshot;
+
+        if (!current.filter.mightContain(id)) {
+            return false;
+        }
+
+        Long expire = current.entries.get(id);
+
+        return expire != null && expire > System.currentTimeMillis();
+    }
+
+    /**
+     * @param id Id of the revoked token
+     * @param expire Expiry time of the token, in epoch milliseconds
+     */
+    public synchronized void add(String id, long expire) {
+        Snapshot current = snapshot;
+
+        current.entries.put(id, expire);
+        current.filter.add(id);
+    }
+
+    /**
+     * Replaces the index with the given revocations, keeping the ones added
+     * locally in the meantime. Expired ids are left out.
+     *
+     * @param revoked Expiry times in epoch milliseconds, by token id
+     */
+    public synchronized void replace(Map<String, Long> revoked) {
+        long now = System.currentTimeMillis();
+        Map<String, Long> entries = new ConcurrentHashMap<>();
+
+        revoked.forEach((id, expire) -> {
+            if (expire > now) {
+                entries.put(id, expire);
+            }
+        });
+
+        snapshot.entries.forEach((id, expire) -> {
+            if (expire > now) {
+                entries.merge(id, expire, Math::max);
+            }
+        });
+
+        snapshot = new Snapshot(entries);
+        loaded = true;
+    }
+
+    public int size() {
+        return snapshot.entries.size();
+    }
+
+    private static class Snapshot {
+
+        private final Map<String, Long> entries;
+        private final BloomFilter filter;
+
+        private Snapshot(Map<String, Long> entries) {
+            this.entries = entries;
+            filter = new BloomFilter(entries.size());
+            entries.keySet().forEach(filter::add);
+        }
+
+    }
+
+    /**
+     * Bloom filter sized for about 1% false positives at the expected number
+     * of entries, twice the size the index had when it was built so ids
+     * added until the next resync still fit.
+     */
+    private static class BloomFilter {
+
+        private static final int BITS_PER_ENTRY = 10;
+        private static final int HASHES = 7;
+        private static final int MIN_BITS = 1 << 12;
+
+        private final AtomicLongArray words;
+        private final long bits;
+
+        private BloomFilter(int expectedEntries) {
+            long wanted = Math.max(MIN_BITS, 2L * expectedEntries * BITS_PER_ENTRY);
+            int wordCount = (int) Math.min(Integer.MAX_VALUE, (wanted + 63) / 64);
+
+            words = new AtomicLongArray(wordCount);
+            bits = wordCount * 64L;
+        }
+
+        private void add(String id) {
+            long hash = hash(id);
+            int first = (int) hash;
+            int second = (int) (hash >>> 32);
+
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(first + i * second, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        private boolean mightContain(String id) {
+            long hash = hash(id);
+            int first = (int) hash;
+            int second = (int) (hash >>> 32);
+
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(first + i * second, bits);
+
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        // 64 bit FNV-1a, split into the two hashes the probes are derived from
+        private static long hash(String id) {
+            long hash = 0xcbf29ce484222325L;
+
+            for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,137 @@
+package security;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.security.DenyAll;
+import javax.annotation.security.PermitAll;
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.Path;
+
+/**
+ * The security annotations of every resource method, read once.
+ *
+ * ApplicationConfig registers its classes on startup, so a request only
+ * looks up the Rule of its resource method. Methods that were not
+ * registered, e.g. of a resource added by a test, get their Rule on first
+ * use.
+ *
+ * The rules follow the usual precedence: DenyAll, RolesAllowed and PermitAll
+ * on the method win over DenyAll and RolesAllowed on the class. A resource
+ * carrying any of the annotations requires a valid token, even when every
+ * role is permitted.
+ *
+ * @author Nicklas Nielsen
+ */
+public class SecurityMetadata {
+
+    private static final Map<Method, Rule> RULES = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the rules of every resource method of the given classes.
+     * Classes without @Path (filters, mappers, listeners) are skipped.
+     *
+     * @param classes Classes registered with the application
+     */
+    public static void register(Collection<Class<?>> classes) {
+        classes.forEach(resourceClass -> {
+            if (!resourceClass.isAnnotationPresent(Path.class)) {
+                return;
+            }
+
+            for (Method method : resourceClass.getMethods()) {
+                RULES.put(method, Rule.of(resourceClass, method));
+            }
+        });
+    }
+
+    /**
+     * @param resourceClass Class of the matched resource
+     * @param method Matched resource method
+     * @return The rule of the method
+     */
+    public static Rule get(Class<?> resourceClass, Method method) {
+        Rule rule = RULES.get(method);
+
+        if (rule == null) {
+            rule = RULES.computeIfAbsent(method, key -> Rule.of(resourceClass, key));
+        }
+
+        return rule;
+    }
+
+    public static class Rule {
+
+        private static final Rule PUBLIC = new Rule(false, false, null);
+
+        private final boolean secured;
+        private final boolean denied;
+        private final String[] roles;
+
+        private Rule(boolean secured, boolean denied, String[] roles) {
+            this.secured = secured;
+            this.denied = denied;
+            this.roles = roles;
+        }
+
+        private static Rule of(Class<?> resourceClass, Method method) {
+            if (method.isAnnotationPresent(DenyAll.class)) {
+                return new Rule(true, true, null);
+            }
+
+            if (method.isAnnotationPresent(RolesAllowed.class)) {
+                return new Rule(true, false, method.getAnnotation(RolesAllowed.class).value());
+            }
+
+            if (method.isAnnotationPresent(PermitAll.class)) {
+                return new Rule(true, false, null);
+            }
+
+            if (resourceClass.isAnnotationPresent(DenyAll.class)) {
+                return new Rule(true, true, null);
+            }
+
+            if (resourceClass.isAnnotationPresent(RolesAllowed.class)) {
+                return new Rule(true, false, resourceClass.getAnnotation(RolesAllowed.class).value());
+            }
+
+            if (resourceClass.isAnnotationPresent(PermitAll.class)) {
+                return new Rule(true, false, null);
+            }
+
+            return PUBLIC;
+        }
+
+        /**
+         * @return True if the method requires a valid token
+         */
+        public boolean isSecured() {
+            return secured;
+        }
+
+        /**
+         * @param principal Principal of the request's token
+         * @return True if the principal may call the method
+         */
+        public boolean isAllowed(UserPrincipal principal) {
+            if (denied) {
+                return false;
+            }
+
+            if (roles == null) {
+                return true;
+            }
+
+            for (String role : roles) {
+                if (principal.isUserInRole(role)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+    }
+
+}
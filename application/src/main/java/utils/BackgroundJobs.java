@@ -0,0 +1,176 @@
+package utils;
+
+import dtos.SweepMetricsDTO;
+import errorhandling.exceptions.DatabaseException;
+import facades.InterviewArchiveFacade;
+import facades.InterviewTimelineFacade;
+import facades.JWTFacade;
+import facades.UserFacade;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.persistence.EntityManagerFactory;
+import javax.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.spi.AbstractContainerLifecycleListener;
+import org.glassfish.jersey.server.spi.Container;
+
+/**
+ * Runs the periodic maintenance jobs while the application is deployed.
+ *
+ * Every job runs on one shared daemon thread, first after one interval has
+ * passed, so short lived containers (tests) rarely run them. The jobs can be
+ * tuned through the following environment variables:
+ * INTERVIEW_ARCHIVE_INTERVAL (minutes, 0 disables archiving),
+ * INTERVIEW_RETENTION_DAYS (interviews held longer ago are archived, unset
+ * to archive deleted interviews only), REVOKED_TOKEN_RESYNC_INTERVAL
+ * (seconds between reloads of the revoked token index, 0 disables them) and
+ * EXPIRED_TOKEN_SWEEP_INTERVAL (minutes between sweeps of expired token
+ * revocations and recovery codes, 0 disables them).
+ *
+ * Setting INTERVIEW_TIMELINE_BACKFILL to true also fills the interview
+ * timeline from the existing interviews once, right after startup.
+ *
+ * @author Nicklas Nielsen
+ */
+@Provider
+public class BackgroundJobs extends AbstractContainerLifecycleListener {
+
+    private static final long DEFAULT_ARCHIVE_INTERVAL = 60;
+    private static final long DEFAULT_REVOKED_TOKEN_RESYNC_INTERVAL = 10;
+    private static final long DEFAULT_EXPIRED_TOKEN_SWEEP_INTERVAL = 15;
+
+    // Rows per statement, keeps every delete short and its locks few
+    private static final int SWEEP_CHUNK_SIZE = 1000;
+
+    private static final LongAdder SWEEP_RUNS = new LongAdder();
+    private static final LongAdder SWEEP_FAILURES = new LongAdder();
+    private static final LongAdder REVOKED_TOKENS_DELETED = new LongAdder();
+    private static final LongAdder RECOVERY_CODES_CLEARED = new LongAdder();
+    private static final AtomicReference<LocalDateTime> LAST_SWEEP = new AtomicReference<>();
+    private static final AtomicLong LAST_SWEEP_DURATION = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void onStartup(Container container) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "background-jobs");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        long archiveInterval = Settings.getLong("INTERVIEW_ARCHIVE_INTERVAL", DEFAULT_ARCHIVE_INTERVAL);
+        if (archiveInterval > 0) {
+            schedule("interview archival", BackgroundJobs::archiveInterviews, archiveInterval, TimeUnit.MINUTES);
+        }
+
+        long resyncInterval = Settings.getLong("REVOKED_TOKEN_RESYNC_INTERVAL", DEFAULT_REVOKED_TOKEN_RESYNC_INTERVAL);
+        if (resyncInterval > 0) {
+            schedule("revoked token resync", BackgroundJobs::resyncRevokedTokens, resyncInterval, TimeUnit.SECONDS);
+        }
+
+        long sweepInterval = Settings.getLong("EXPIRED_TOKEN_SWEEP_INTERVAL", DEFAULT_EXPIRED_TOKEN_SWEEP_INTERVAL);
+        if (sweepInterval > 0) {
+            schedule("expired token sweep", BackgroundJobs::sweepExpiredTokens, sweepInterval, TimeUnit.MINUTES);
+        }
+
+        if (Boolean.parseBoolean(System.getenv("INTERVIEW_TIMELINE_BACKFILL"))) {
+            executor.execute(BackgroundJobs::backfillInterviewTimeline);
+        }
+    }
+
+    @Override
+    public void onShutdown(Container container) {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void schedule(String name, Runnable job, long interval, TimeUnit unit) {
+        executor.scheduleWithFixedDelay(() -> {
+            // An exception would cancel every later run
+            try {
+                job.run();
+            } catch (Exception e) {
+                System.out.println(String.format("Background job %s failed: %s", name, e));
+            }
+        }, interval, interval, unit);
+    }
+
+    private static void archiveInterviews() {
+        long retentionDays = Settings.getLong("INTERVIEW_RETENTION_DAYS", 0);
+        LocalDateTime heldBefore = retentionDays > 0 ? LocalDateTime.now().minusDays(retentionDays) : null;
+
+        try {
+            int archived = InterviewArchiveFacade.getInterviewArchiveFacade(EMF_Creator.createEntityManagerFactory()).archive(heldBefore);
+
+            if (archived > 0) {
+                System.out.println(String.format("Archived %d interviews", archived));
+            }
+        } catch (DatabaseException e) {
+            System.out.println("Unable to archive interviews");
+        }
+    }
+
+    private static void resyncRevokedTokens() {
+        try {
+            JWTFacade.getJWTFacade(EMF_Creator.createEntityManagerFactory()).resyncRevoked();
+        } catch (DatabaseException e) {
+            System.out.println("Unable to resync revoked tokens");
+        }
+    }
+
+    /**
+     * Deletes expired token revocations and clears expired recovery codes,
+     * SWEEP_CHUNK_SIZE rows per transaction, until none are left.
+     */
+    private static void sweepExpiredTokens() {
+        EntityManagerFactory emf = EMF_Creator.createEntityManagerFactory();
+        JWTFacade jwtFacade = JWTFacade.getJWTFacade(emf);
+        UserFacade userFacade = UserFacade.getUserFacade(emf);
+        long start = System.currentTimeMillis();
+        int chunk;
+
+        SWEEP_RUNS.increment();
+        LAST_SWEEP.set(LocalDateTime.now());
+
+        try {
+            do {
+                chunk = jwtFacade.deleteExpiredRevoked(SWEEP_CHUNK_SIZE);
+                REVOKED_TOKENS_DELETED.add(chunk);
+            } while (chunk == SWEEP_CHUNK_SIZE);
+
+            do {
+                chunk = userFacade.clearExpiredRecoveryCodes(SWEEP_CHUNK_SIZE);
+                RECOVERY_CODES_CLEARED.add(chunk);
+            } while (chunk == SWEEP_CHUNK_SIZE);
+        } catch (DatabaseException e) {
+            SWEEP_FAILURES.increment();
+            System.out.println("Unable to sweep expired tokens");
+        } finally {
+            LAST_SWEEP_DURATION.set(System.currentTimeMillis() - start);
+        }
+    }
+
+    public static SweepMetricsDTO getSweepMetrics() {
+        LocalDateTime lastSweep = LAST_SWEEP.get();
+
+        return new SweepMetricsDTO(SWEEP_RUNS.sum(), SWEEP_FAILURES.sum(), REVOKED_TOKENS_DELETED.sum(), RECOVERY_CODES_CLEARED.sum(),
+                lastSweep == null ? null : lastSweep.toString(), LAST_SWEEP_DURATION.get());
+    }
+
+    private static void backfillInterviewTimeline() {
+        try {
+            int added = InterviewTimelineFacade.getInterviewTimelineFacade(EMF_Creator.createEntityManagerFactory()).backfill();
+            System.out.println(String.format("Added %d interviews to the interview timeline", added));
+        } catch (DatabaseException e) {
+            System.out.println("Unable to backfill the interview timeline");
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Vector;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.mappings.RelationTableMechanism;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+
+/**
+ * Migrates databases created before ids were stored as BINARY(16).
+ *
+ * The columns to convert are taken from the mapping metadata: every id
+ * column using UUIDBinaryConverter, and every foreign key and link table
+ * column referring to one. Columns that are already binary are skipped, so
+ * the migration can be run again safely. Foreign keys on the columns are
+ * dropped before the conversion and recreated afterwards, also when the
+ * conversion fails. Existing ids keep their value; only new ids are time
+ * ordered.
+ *
+ * Pending columns are reported on startup and converted when the
+ * environment variable DB_MIGRATE_BINARY_IDS is set to true. Take a backup
+ * first, the conversion rewrites every table holding an id. A conversion
+ * that fails, or leaves a column unconverted, stops the factory from being
+ * built, and can be run again once the cause is fixed.
+ *
+ * @author Nicklas Nielsen
+ */
+public class BinaryIdMigration {
+
+    /**
+     * Reports, and optionally converts, the id columns not yet stored as
+     * BINARY(16) in the database behind the given factory.
+     *
+     * @param emf Factory to migrate
+     * @return The columns (table.column) that were pending when the check ran
+     * @throws PersistenceException If a conversion was attempted and did not
+     * complete
+     */
+    public static List<String> migrate(EntityManagerFactory emf) {
+        List<String> pending = new ArrayList<>();
+        boolean convert = Boolean.parseBoolean(System.getenv("DB_MIGRATE_BINARY_IDS"));
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            Map<ColumnName, Boolean> existing = getNonBinaryColumns(em);
+            List<ColumnName> columns = new ArrayList<>();
+
+            getIdColumns(emf).forEach(column -> {
+                if (existing.containsKey(column)) {
+                    columns.add(column);
+                    pending.add(column.toString());
+                }
+            });
+
+            if (columns.isEmpty()) {
+                return pending;
+            }
+
+            System.out.println("Id columns not yet stored as BINARY(16): " + pending);
+
+            if (!convert) {
+                return pending;
+            }
+
+            List<ForeignKey> foreignKeys = getForeignKeys(em, columns);
+            List<ForeignKey> dropped = new ArrayList<>();
+            PersistenceException failure = null;
+
+            try {
+                for (ForeignKey foreignKey : foreignKeys) {
+                    execute(em, String.format("ALTER TABLE %s DROP FOREIGN KEY %s", foreignKey.column.table, foreignKey.name));
+                    dropped.add(foreignKey);
+                }
+
+                for (ColumnName column : columns) {
+                    String notNull = existing.get(column) ? "" : " NOT NULL";
+
+                    // Through VARBINARY first, so the packed bytes are never interpreted as characters
+                    execute(em, String.format("ALTER TABLE %s MODIFY %s VARBINARY(36)%s", column.table, column.column, notNull));
+                    execute(em, String.format("UPDATE %s SET %s = UNHEX(REPLACE(%s, '-', '')) WHERE LENGTH(%s) = 36", column.table, column.column, column.column, column.column));
+                    execute(em, String.format("ALTER TABLE %s MODIFY %s BINARY(16)%s", column.table, column.column, notNull));
+                }
+            } catch (PersistenceException e) {
+                failure = e;
+            }
+
+            // The foreign keys are gone from the schema once dropped, a later run could not find them again
+            List<String> missing = addForeignKeys(em, dropped);
+
+            if (!missing.isEmpty()) {
+                throw new PersistenceException("Unable to recreate foreign keys, add them by hand: " + missing, failure);
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            Map<ColumnName, Boolean> remaining = getNonBinaryColumns(em);
+            List<String> unconverted = new ArrayList<>();
+
+            columns.forEach(column -> {
+                if (remaining.containsKey(column)) {
+                    unconverted.add(column.toString());
+                }
+            });
+
+            if (!unconverted.isEmpty()) {
+                throw new PersistenceException("Id columns left unconverted: " + unconverted);
+            }
+
+            System.out.println(String.format("Converted %d id columns to BINARY(16)", columns.size()));
+        } catch (PersistenceException e) {
+            System.out.println("Unable to migrate id columns: " + e.getMessage());
+
+            // Never serve traffic on a schema the conversion may have left half done
+            if (convert) {
+                throw e;
+            }
+        } finally {
+            em.close();
+        }
+
+        return pending;
+    }
+
+    private static Set<ColumnName> getIdColumns(EntityManagerFactory emf) {
+        Map<Class, ClassDescriptor> descriptors = JpaHelper.getServerSession(emf).getDescriptors();
+        Set<DatabaseField> idFields = new HashSet<>();
+
+        descriptors.values().forEach(descriptor -> {
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if (mapping.isDirectToFieldMapping() && ((AbstractDirectMapping) mapping).getConverter() instanceof UUIDBinaryConverter) {
+                    idFields.add(mapping.getField());
+                }
+            }
+        });
+
+        Set<ColumnName> columns = new LinkedHashSet<>();
+        idFields.forEach(field -> {
+            columns.add(new ColumnName(field.getTableName(), field.getName()));
+        });
+
+        descriptors.values().forEach(descriptor -> {
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                if (mapping.isOneToOneMapping()) {
+                    OneToOneMapping oneToOne = (OneToOneMapping) mapping;
+
+                    // The mappedBy side of a relation holds no foreign key of its own
+                    if (oneToOne.getSourceToTargetKeyFields() != null) {
+                        oneToOne.getSourceToTargetKeyFields().forEach((source, target) -> {
+                            if (idFields.contains(target)) {
+                                columns.add(new ColumnName(source.getTableName(), source.getName()));
+                            }
+                        });
+                    }
+
+                    addRelationTableColumns(oneToOne.getRelationTableMechanism(), idFields, columns);
+                } else if (mapping.isManyToManyMapping()) {
+                    addRelationTableColumns(((ManyToManyMapping) mapping).getRelationTableMechanism(), idFields, columns);
+                }
+            }
+        });
+
+        return columns;
+    }
+
+    private static void addRelationTableColumns(RelationTableMechanism mechanism, Set<DatabaseField> idFields, Set<ColumnName> columns) {
+        if (mechanism == null) {
+            return;
+        }
+
+        String table = mechanism.getRelationTableName();
+        addRelationKeyColumns(table, mechanism.getSourceRelationKeyFields(), mechanism.getSourceKeyFields(), idFields, columns);
+        addRelationKeyColumns(table, mechanism.getTargetRelationKeyFields(), mechanism.getTargetKeyFields(), idFields, columns);
+    }
+
+    private static void addRelationKeyColumns(String table, Vector<DatabaseField> relationKeys, Vector<DatabaseField> keys, Set<DatabaseField> idFields, Set<ColumnName> columns) {
+        for (int i = 0; i < relationKeys.size() && i < keys.size(); i++) {
+            if (idFields.contains(keys.get(i))) {
+                columns.add(new ColumnName(table, relationKeys.get(i).getName()));
+            }
+        }
+    }
+
+    /**
+     * @return Every non-binary column in the schema, mapped to whether it is
+     * nullable
+     */
+    private static Map<ColumnName, Boolean> getNonBinaryColumns(EntityManager em) {
+        Map<ColumnName, Boolean> columns = new HashMap<>();
+
+        List<Object[]> rows = em.createNativeQuery("SELECT TABLE_NAME, COLUMN_NAME, IS_NULLABLE FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND DATA_TYPE <> 'binary'").getResultList();
+
+        rows.forEach(row -> {
+            columns.put(new ColumnName((String) row[0], (String) row[1]), "YES".equals(row[2]));
+        });
+
+        return columns;
+    }
+
+    private static List<ForeignKey> getForeignKeys(EntityManager em, List<ColumnName> columns) {
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+
+        List<Object[]> rows = em.createNativeQuery("SELECT CONSTRAINT_NAME, TABLE_NAME, COLUMN_NAME, REFERENCED_TABLE_NAME, REFERENCED_COLUMN_NAME "
+                + "FROM information_schema.KEY_COLUMN_USAGE WHERE TABLE_SCHEMA = DATABASE() AND REFERENCED_TABLE_NAME IS NOT NULL").getResultList();
+
+        rows.forEach(row -> {
+            ForeignKey foreignKey = new ForeignKey((String) row[0],
+                    new ColumnName((String) row[1], (String) row[2]),
+                    new ColumnName((String) row[3], (String) row[4]));
+
+            if (columns.contains(foreignKey.column) || columns.contains(foreignKey.referenced)) {
+                foreignKeys.add(foreignKey);
+            }
+        });
+
+        return foreignKeys;
+    }
+
+    /**
+     * @return The statements of the foreign keys that could not be added
+     */
+    private static List<String> addForeignKeys(EntityManager em, List<ForeignKey> foreignKeys) {
+        List<String> missing = new ArrayList<>();
+
+        for (ForeignKey foreignKey : foreignKeys) {
+            String statement = String.format("ALTER TABLE %s ADD CONSTRAINT %s FOREIGN KEY (%s) REFERENCES %s (%s)",
+                    foreignKey.column.table, foreignKey.name, foreignKey.column.column, foreignKey.referenced.table, foreignKey.referenced.column);
+
+            try {
+                execute(em, statement);
+            } catch (PersistenceException e) {
+                missing.add(statement);
+            }
+        }
+
+        return missing;
+    }
+
+    private static void execute(EntityManager em, String statement) {
+        em.getTransaction().begin();
+
+        try {
+            em.createNativeQuery(statement).executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        }
+    }
+
+    private static class ColumnName {
+
+        private final String table;
+        private final String column;
+
+        private ColumnName(String table, String column) {
+            this.table = table.toLowerCase();
+            this.column = column.toLowerCase();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, column);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ColumnName)) {
+                return false;
+            }
+
+            ColumnName other = (ColumnName) obj;
+
+            return table.equals(other.table) && column.equals(other.column);
+        }
+
+        @Override
+        public String toString() {
+            return table + "." + column;
+        }
+
+    }
+
+    private static class ForeignKey {
+
+        private final String name;
+        private final ColumnName column;
+        private final ColumnName referenced;
+
+        private ForeignKey(String name, ColumnName column, ColumnName referenced) {
+            this.name = name;
+            this.column = column;
+            this.referenced = referenced;
+        }
+
+    }
+
+}
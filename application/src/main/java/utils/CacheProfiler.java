@@ -0,0 +1,50 @@
+package utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+/**
+ * EclipseLink profiler that only counts shared cache hits and misses per
+ * entity class. Everything else is left to the default no-op behaviour.
+ *
+ * @author Nicklas Nielsen
+ */
+public class CacheProfiler extends SessionProfilerAdapter {
+
+    private final Map<Class<?>, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> misses = new ConcurrentHashMap<>();
+
+    @Override
+    public void occurred(String operation, DatabaseQuery query, AbstractSession session) {
+        if (query == null || query.getReferenceClass() == null) {
+            return;
+        }
+
+        if (SessionProfiler.CacheHits.equals(operation)) {
+            hits.computeIfAbsent(query.getReferenceClass(), entity -> new LongAdder()).increment();
+        } else if (SessionProfiler.CacheMisses.equals(operation)) {
+            misses.computeIfAbsent(query.getReferenceClass(), entity -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public int getProfileWeight() {
+        return SessionProfiler.NORMAL;
+    }
+
+    public long getHits(Class<?> entity) {
+        LongAdder counter = hits.get(entity);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long getMisses(Class<?> entity) {
+        LongAdder counter = misses.get(entity);
+        return counter == null ? 0 : counter.sum();
+    }
+
+}
@@ -0,0 +1,130 @@
+package utils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import dtos.ConnectionPoolMetricsDTO;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool handed to EclipseLink as its non-JTA data
+ * source.
+ *
+ * The pool can be tuned through the following environment variables:
+ * DB_POOL_MIN_IDLE, DB_POOL_MAX_SIZE, DB_POOL_CONNECTION_TIMEOUT (ms) and
+ * DB_POOL_IDLE_TIMEOUT (ms).
+ *
+ * A cursor fetch pool serves the streamed exports only. It keeps no idle
+ * connections and holds at most DB_EXPORT_POOL_MAX_SIZE.
+ *
+ * @author Nicklas Nielsen
+ */
+public class ConnectionPool {
+
+    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    private static final int DEFAULT_MIN_IDLE = 2;
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final long DEFAULT_CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    private static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    private static final int DEFAULT_EXPORT_MAX_SIZE = 2;
+
+    private final HikariDataSource dataSource;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    public ConnectionPool(String name, String url, String user, String password) {
+        this(name, url, user, password, false);
+    }
+
+    public ConnectionPool(String name, String url, String user, String password, boolean readOnly) {
+        this(name, url, user, password, readOnly, false);
+    }
+
+    /**
+     * @param cursorFetch Whether statements with a fetch size read through a
+     * server side cursor. This also makes the MySQL driver prepare every
+     * statement on the server, so only the export pool turns it on.
+     */
+    public ConnectionPool(String name, String url, String user, String password, boolean readOnly, boolean cursorFetch) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName(DRIVER);
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+        config.setReadOnly(readOnly);
+
+        // Lets the MySQL driver send batched inserts as multi-row statements
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        if (cursorFetch) {
+            // Statements with a fetch size read through a server side cursor instead of buffering the whole result
+            config.addDataSourceProperty("useCursorFetch", "true");
+            config.setMinimumIdle(0);
+            config.setMaximumPoolSize(Settings.getInt("DB_EXPORT_POOL_MAX_SIZE", DEFAULT_EXPORT_MAX_SIZE));
+        } else {
+            config.setMinimumIdle(Settings.getInt("DB_POOL_MIN_IDLE", DEFAULT_MIN_IDLE));
+            config.setMaximumPoolSize(Settings.getInt("DB_POOL_MAX_SIZE", DEFAULT_MAX_SIZE));
+        }
+
+        config.setConnectionTimeout(Settings.getLong("DB_POOL_CONNECTION_TIMEOUT", DEFAULT_CONNECTION_TIMEOUT));
+        config.setIdleTimeout(Settings.getLong("DB_POOL_IDLE_TIMEOUT", DEFAULT_IDLE_TIMEOUT));
+
+        config.setMetricsTrackerFactory((poolName, poolStats) -> new AcquireTracker());
+
+        dataSource = new HikariDataSource(config);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public ConnectionPoolMetricsDTO getMetrics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+
+        long count = acquired.sum();
+        double averageMillis = count == 0 ? 0 : acquireNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+        double maxMillis = maxAcquireNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+
+        return new ConnectionPoolMetricsDTO(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                dataSource.getMinimumIdle(),
+                dataSource.getMaximumPoolSize(),
+                count,
+                timeouts.sum(),
+                averageMillis,
+                maxMillis);
+    }
+
+    public void close() {
+        dataSource.close();
+    }
+
+    private class AcquireTracker implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package utils;
+
+import errorhandling.exceptions.SanitizationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque keyset cursors handed to clients as "Next-Cursor" tokens.
+ *
+ * A cursor is the sort key of the last row on a page, joined and Base64 (URL
+ * safe) encoded, so the next page can continue after it without an OFFSET.
+ *
+ * @author Nicklas Nielsen
+ */
+public class Cursor {
+
+    public static final String HEADER = "Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(String... values) {
+        String joined = String.join(SEPARATOR, values);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedValues) throws SanitizationException {
+        String joined;
+
+        try {
+            joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid cursor");
+        }
+
+        String[] values = joined.split(Pattern.quote(SEPARATOR), -1);
+        if (values.length != expectedValues) {
+            throw new SanitizationException("Invalid cursor");
+        }
+
+        return values;
+    }
+
+    /**
+     * Decodes a cursor holding a single id.
+     *
+     * @param cursor Cursor from the client, may be null for the first page
+     * @return The id to continue after, or TimeOrderedUUID.MIN for the first
+     * page
+     * @throws SanitizationException If the cursor is not a valid id cursor
+     */
+    public static UUID decodeId(String cursor) throws SanitizationException {
+        if (cursor == null) {
+            return TimeOrderedUUID.MIN;
+        }
+
+        String value = decode(cursor, 1)[0];
+
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new SanitizationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Builds the id cursor for the page following the given one.
+     *
+     * @param page Rows on the current page, ordered by id
+     * @param limit Page size requested
+     * @param id Extracts the id of a row
+     * @return Cursor for the next page, or null if this was the last page
+     */
+    public static <T> String nextById(List<T> page, int limit, Function<T, UUID> id) {
+        if (page.isEmpty() || page.size() < limit) {
+            return null;
+        }
+
+        return encode(id.apply(page.get(page.size() - 1)).toString());
+    }
+
+}
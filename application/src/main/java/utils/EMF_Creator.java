@@ -1,8 +1,22 @@
 package utils;
 
+import dtos.ConnectionPoolMetricsDTO;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
 /**
  *
@@ -13,6 +27,16 @@ public class EMF_Creator {
     private static final String PERSISTENCE_UNIT_NAME = "pu";
     private static final String PERSISTENCE_UNIT_NAME_FOR_TEST = "puTest";
 
+    // One factory and one connection pool per persistence unit, shared by the whole JVM
+    private static final Map<String, EntityManagerFactory> FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    // Read replica factory per primary factory, only present when a replica is configured
+    private static final Map<EntityManagerFactory, EntityManagerFactory> REPLICAS = new ConcurrentHashMap<>();
+
+    // Export factory per primary factory, see buildExportEntityManagerFactory
+    private static final Map<EntityManagerFactory, EntityManagerFactory> EXPORTS = new ConcurrentHashMap<>();
+
     /**
      * Used for testing.
      *
@@ -34,6 +58,30 @@ public class EMF_Creator {
         System.clearProperty("IS_INTEGRATION_TEST_WITH_DB");
     }
 
+    /**
+     * Used for testing.
+     *
+     * Sends the reads of the given factory to the given replica factory, or
+     * back to the factory itself when replica is null.
+     *
+     * @param emf Primary factory
+     * @param replica Factory standing in for the read replica
+     */
+    public static void setReadEntityManagerFactoryForTest(EntityManagerFactory emf, EntityManagerFactory replica) {
+        if (replica == null) {
+            REPLICAS.remove(emf);
+        } else {
+            REPLICAS.put(emf, replica);
+        }
+    }
+
+    /**
+     * Returns the process-wide factory for the active persistence unit. The
+     * factory is created on first use and shared by every resource, filter
+     * and facade afterwards.
+     *
+     * @return Shared EntityManagerFactory
+     */
     public static EntityManagerFactory createEntityManagerFactory() {
         return createEntityManagerFactory(false);
     }
@@ -42,25 +90,101 @@ public class EMF_Creator {
         return createEntityManagerFactory(true);
     }
 
+    /**
+     * Returns the factory read-only work should use: the read replica of the
+     * given factory when one is configured, otherwise the factory itself.
+     *
+     * @param emf Primary factory
+     * @return Factory for reads
+     */
+    public static EntityManagerFactory getReadEntityManagerFactory(EntityManagerFactory emf) {
+        return REPLICAS.getOrDefault(emf, emf);
+    }
+
+    /**
+     * Returns the factory streamed exports read through, see JsonExport.
+     *
+     * @param emf Primary factory
+     * @return Factory for exports
+     */
+    public static EntityManagerFactory getExportEntityManagerFactory(EntityManagerFactory emf) {
+        return EXPORTS.getOrDefault(emf, getReadEntityManagerFactory(emf));
+    }
+
+    public static ConnectionPoolMetricsDTO getConnectionPoolMetrics() {
+        ConnectionPool pool = POOLS.get(getActivePersistenceUnitName(false));
+
+        if (pool == null) {
+            return null;
+        }
+
+        return pool.getMetrics();
+    }
+
     private static EntityManagerFactory createEntityManagerFactory(boolean isTest) {
+        return FACTORIES.computeIfAbsent(getActivePersistenceUnitName(isTest), EMF_Creator::buildEntityManagerFactory);
+    }
+
+    private static EntityManagerFactory buildEntityManagerFactory(String puName) {
         // Used in production
         if (isDeployed()) {
             String dbUser = System.getenv("USER");
             String dbPass = System.getenv("PW");
             String dbConnectionString = System.getenv("CONNECTION_STR");
 
-            Properties props = getProps(dbUser, dbPass, dbConnectionString);
+            ConnectionPool pool = POOLS.computeIfAbsent(puName, name -> new ConnectionPool(name, dbConnectionString, dbUser, dbPass));
+            Properties props = getProps(pool);
+            ReferenceDataCache.configure(props);
+
+            EntityManagerFactory emf = Persistence.createEntityManagerFactory(puName, props);
+            ReferenceDataCache.cacheQueryResults(emf);
+            BinaryIdMigration.migrate(emf);
+            SchemaIndexes.verify(emf);
+            RequestEntityManager.watch(emf);
+
+            String replicaConnectionString = System.getenv("REPLICA_CONNECTION_STR");
+            String replicaUser = System.getenv().getOrDefault("REPLICA_USER", dbUser);
+            String replicaPass = System.getenv().getOrDefault("REPLICA_PW", dbPass);
 
-            return Persistence.createEntityManagerFactory(PERSISTENCE_UNIT_NAME, props);
+            if (replicaConnectionString != null) {
+                REPLICAS.put(emf, buildReplicaEntityManagerFactory(puName, replicaConnectionString, replicaUser, replicaPass));
+                EXPORTS.put(emf, buildExportEntityManagerFactory(puName, replicaConnectionString, replicaUser, replicaPass));
+            } else {
+                EXPORTS.put(emf, buildExportEntityManagerFactory(puName, dbConnectionString, dbUser, dbPass));
+            }
+
+            return emf;
         }
 
         // Used for testing and development
-        String puName = getPersistenceUnitName(isTest);
         EntityManagerFactory emf = null;
 
         try {
-            emf = Persistence.createEntityManagerFactory(puName, null);
-        } catch (javax.persistence.PersistenceException ex) {
+            Map<String, String> unitProps = readPersistenceUnitProperties(puName);
+            ConnectionPool pool = POOLS.computeIfAbsent(puName, name -> new ConnectionPool(name,
+                    unitProps.get("javax.persistence.jdbc.url"),
+                    unitProps.get("javax.persistence.jdbc.user"),
+                    unitProps.get("javax.persistence.jdbc.password")));
+
+            Properties props = new Properties();
+            props.put("javax.persistence.nonJtaDataSource", pool.getDataSource());
+
+            // Credentials are owned by the pool, blank them so EclipseLink asks the data source for a plain connection
+            props.setProperty("javax.persistence.jdbc.user", "");
+            props.setProperty("javax.persistence.jdbc.password", "");
+            ReferenceDataCache.configure(props);
+
+            emf = Persistence.createEntityManagerFactory(puName, props);
+            ReferenceDataCache.cacheQueryResults(emf);
+            BinaryIdMigration.migrate(emf);
+            SchemaIndexes.verify(emf);
+            RequestEntityManager.watch(emf);
+
+            EXPORTS.put(emf, buildExportEntityManagerFactory(puName,
+                    unitProps.get("javax.persistence.jdbc.url"),
+                    unitProps.get("javax.persistence.jdbc.user"),
+                    unitProps.get("javax.persistence.jdbc.password")));
+        } catch (RuntimeException ex) {
             System.out.println("##########################################################");
             System.out.println("######                                              ######");
             System.out.println("######      ERROR Creating a persistence Unit       ######");
@@ -73,16 +197,62 @@ public class EMF_Creator {
         return emf;
     }
 
+    /**
+     * Builds a second factory for the same persistence unit against a read
+     * replica. It runs under its own session name, never generates schema,
+     * uses a read-only pool and only keeps reference data in its shared cache,
+     * so replica reads never serve entities cached before a write on the
+     * primary.
+     */
+    private static EntityManagerFactory buildReplicaEntityManagerFactory(String puName, String connectionString, String dbUser, String dbPass) {
+        String replicaName = puName + "-replica";
+
+        ConnectionPool pool = POOLS.computeIfAbsent(replicaName, name -> new ConnectionPool(name, connectionString, dbUser, dbPass, true));
+        Properties props = getProps(pool);
+        props.setProperty(PersistenceUnitProperties.SESSION_NAME, replicaName);
+        props.setProperty(PersistenceUnitProperties.SCHEMA_GENERATION_DATABASE_ACTION, PersistenceUnitProperties.SCHEMA_GENERATION_NONE_ACTION);
+        props.setProperty(PersistenceUnitProperties.CACHE_SHARED_DEFAULT, "false");
+        ReferenceDataCache.configure(props);
+
+        EntityManagerFactory replica = Persistence.createEntityManagerFactory(puName, props);
+        ReferenceDataCache.cacheQueryResults(replica);
+        RequestEntityManager.watch(replica);
+
+        return replica;
+    }
+
+    /**
+     * Builds the factory the streamed exports read through. It reads from the
+     * replica when one is configured, and is set up like the replica factory,
+     * but its small pool is the only one with cursor fetch turned on. The
+     * other pools keep client side prepared statements and batch rewriting.
+     */
+    private static EntityManagerFactory buildExportEntityManagerFactory(String puName, String connectionString, String dbUser, String dbPass) {
+        String exportName = puName + "-export";
+
+        ConnectionPool pool = POOLS.computeIfAbsent(exportName, name -> new ConnectionPool(name, connectionString, dbUser, dbPass, true, true));
+        Properties props = getProps(pool);
+        props.setProperty(PersistenceUnitProperties.SESSION_NAME, exportName);
+        props.setProperty(PersistenceUnitProperties.SCHEMA_GENERATION_DATABASE_ACTION, PersistenceUnitProperties.SCHEMA_GENERATION_NONE_ACTION);
+        props.setProperty(PersistenceUnitProperties.CACHE_SHARED_DEFAULT, "false");
+        ReferenceDataCache.configure(props);
+
+        EntityManagerFactory export = Persistence.createEntityManagerFactory(puName, props);
+        RequestEntityManager.watch(export);
+
+        return export;
+    }
+
     private static boolean isDeployed() {
         return System.getenv("DEPLOYED") != null;
     }
 
-    private static Properties getProps(String dbUser, String dbPass, String dbConnectionString) {
+    private static Properties getProps(ConnectionPool pool) {
         Properties props = new Properties();
 
-        props.setProperty("javax.persistence.jdbc.user", dbUser);
-        props.setProperty("javax.persistence.jdbc.password", dbPass);
-        props.setProperty("javax.persistence.jdbc.url", dbConnectionString);
+        props.put("javax.persistence.nonJtaDataSource", pool.getDataSource());
+        props.setProperty("javax.persistence.jdbc.user", "");
+        props.setProperty("javax.persistence.jdbc.password", "");
         props.setProperty("javax.persistence.jdbc.driver", "com.mysql.cj.jdbc.Driver");
 
         // Sets the production log-level to show only potential problems
@@ -92,6 +262,41 @@ public class EMF_Creator {
         return props;
     }
 
+    private static Map<String, String> readPersistenceUnitProperties(String puName) {
+        Map<String, String> properties = new HashMap<>();
+
+        try (InputStream in = EMF_Creator.class.getClassLoader().getResourceAsStream("META-INF/persistence.xml")) {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+            NodeList units = document.getElementsByTagName("persistence-unit");
+
+            for (int i = 0; i < units.getLength(); i++) {
+                Element unit = (Element) units.item(i);
+
+                if (!puName.equals(unit.getAttribute("name"))) {
+                    continue;
+                }
+
+                NodeList unitProperties = unit.getElementsByTagName("property");
+                for (int j = 0; j < unitProperties.getLength(); j++) {
+                    Element property = (Element) unitProperties.item(j);
+                    properties.put(property.getAttribute("name"), property.getAttribute("value"));
+                }
+            }
+        } catch (IOException | ParserConfigurationException | SAXException | IllegalArgumentException e) {
+            throw new PersistenceException("Unable to read persistence unit " + puName, e);
+        }
+
+        return properties;
+    }
+
+    private static String getActivePersistenceUnitName(boolean isTest) {
+        if (isDeployed()) {
+            return PERSISTENCE_UNIT_NAME;
+        }
+
+        return getPersistenceUnitName(isTest);
+    }
+
     private static String getPersistenceUnitName(boolean isTest) {
         return isTest || System.getProperty("IS_INTEGRATION_TEST_WITH_DB") != null ? PERSISTENCE_UNIT_NAME_FOR_TEST : PERSISTENCE_UNIT_NAME;
     }
@@ -0,0 +1,85 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.persistence.Query;
+import javax.ws.rs.core.StreamingOutput;
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
+
+/**
+ * Streams large result sets to the client as one JSON array.
+ *
+ * The query is read through a forward only cursor with a bounded JDBC fetch
+ * size. The export connection pool turns on server side cursors, so the
+ * MySQL driver never buffers the whole result either (see
+ * EMF_Creator.getExportEntityManagerFactory). Rows are handed on in chunks
+ * of CHUNK_SIZE, and every DTO is written to the response as soon as it is
+ * built, so memory use depends on the chunk size and not on the size of the
+ * export.
+ *
+ * @author Nicklas Nielsen
+ */
+public class JsonExport {
+
+    public static final int CHUNK_SIZE = 500;
+
+    /**
+     * Runs the query as a cursor and passes the rows on, one chunk at a time.
+     * Rows of a chunk are released once the consumer returns.
+     *
+     * @param query Query to stream, must not be paged and should belong to an
+     * EntityManager of the export factory
+     * @param consumer Receives every chunk of rows
+     */
+    public static <T> void forEachChunk(Query query, Consumer<List<T>> consumer) {
+        query.setHint(QueryHints.CURSOR, HintValues.TRUE);
+        query.setHint(QueryHints.CURSOR_PAGE_SIZE, CHUNK_SIZE);
+        query.setHint(QueryHints.JDBC_FETCH_SIZE, CHUNK_SIZE);
+
+        CursoredStream stream = (CursoredStream) query.getSingleResult();
+
+        try {
+            while (stream.hasNext()) {
+                // The caller names the row type of its query, the stream itself is untyped
+                @SuppressWarnings("unchecked")
+                List<T> chunk = (List<T>) stream.next(CHUNK_SIZE);
+
+                consumer.accept(chunk);
+                stream.releasePrevious();
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Builds a response entity that writes every DTO the producer hands it as
+     * an element of a JSON array.
+     *
+     * @param gson Gson used to serialize each element
+     * @param type Type of the elements
+     * @param producer Called once when the response is written, with the
+     * consumer that writes an element
+     * @return Entity for the response
+     */
+    public static <T> StreamingOutput toJsonArray(Gson gson, Class<T> type, Consumer<Consumer<T>> producer) {
+        return output -> {
+            JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+
+            writer.beginArray();
+            producer.accept(element -> {
+                gson.toJson(element, type, writer);
+            });
+            writer.endArray();
+            writer.flush();
+        };
+    }
+
+}
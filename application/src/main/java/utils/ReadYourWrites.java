@@ -0,0 +1,19 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET resource method that changes data. RequestEntityManagerFilter
+ * reads from the primary database throughout such a request, so the entities
+ * it writes are never loaded from a read replica that has fallen behind.
+ *
+ * @author Nicklas Nielsen
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadYourWrites {
+
+}
@@ -0,0 +1,172 @@
+package utils;
+
+import dtos.CacheMetricsDTO;
+import entities.CompanyStatusType;
+import entities.InterviewQuestionTemplate;
+import entities.InterviewTemplate;
+import entities.Role;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManagerFactory;
+import org.eclipse.persistence.config.CacheType;
+import org.eclipse.persistence.config.DescriptorCustomizer;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyAllQuery;
+import org.eclipse.persistence.queries.QueryResultsCachePolicy;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * Shared cache policy for reference data that changes a few times a year:
+ * roles, company status types and interview (question) templates.
+ *
+ * The entities are kept in EclipseLink's shared cache, bounded in size and
+ * with a time to live. The named queries reading them cache their results
+ * under the same policy. Facades call invalidate after changing one of these
+ * entities.
+ *
+ * The policy can be tuned through the following environment variables:
+ * REFERENCE_CACHE_SIZE (entries per entity) and REFERENCE_CACHE_TTL (ms).
+ *
+ * @author Nicklas Nielsen
+ */
+public class ReferenceDataCache {
+
+    private static final int DEFAULT_SIZE = 500;
+    private static final long DEFAULT_TTL = TimeUnit.HOURS.toMillis(1);
+
+    private static final int SIZE = Settings.getInt("REFERENCE_CACHE_SIZE", DEFAULT_SIZE);
+    private static final long TTL = Settings.getLong("REFERENCE_CACHE_TTL", DEFAULT_TTL);
+
+    private static final List<Class<?>> ENTITIES = Arrays.asList(
+            Role.class,
+            CompanyStatusType.class,
+            InterviewTemplate.class,
+            InterviewQuestionTemplate.class);
+
+    private static final List<String> QUERIES = Arrays.asList(
+            "Role.getAll",
+            "Role.getByType",
+            "Role.getDefaults",
+            "CompanyStatusType.getAll",
+            "CompanyStatusType.getByType",
+            "CompanyStatusType.getDefault",
+            "InterviewTemplate.getAll",
+            "InterviewQuestionTemplate.getAll");
+
+    /**
+     * Adds the cache settings for the reference entities to the properties
+     * used to create a persistence unit.
+     *
+     * @param props Persistence unit properties
+     */
+    public static void configure(Properties props) {
+        props.setProperty(PersistenceUnitProperties.PROFILER, CacheProfiler.class.getName());
+
+        ENTITIES.forEach(entity -> {
+            String name = entity.getSimpleName();
+
+            props.setProperty(PersistenceUnitProperties.CACHE_SHARED_ + name, "true");
+            props.setProperty(PersistenceUnitProperties.CACHE_TYPE_ + name, CacheType.SoftWeak);
+            props.setProperty(PersistenceUnitProperties.CACHE_SIZE_ + name, String.valueOf(SIZE));
+            props.setProperty(PersistenceUnitProperties.DESCRIPTOR_CUSTOMIZER_ + name, Customizer.class.getName());
+        });
+    }
+
+    /**
+     * Turns on result caching for the reference data named queries.
+     *
+     * @param emf Factory created with the properties from configure
+     */
+    public static void cacheQueryResults(EntityManagerFactory emf) {
+        // Named queries are registered on the session when it logs in
+        emf.createEntityManager().close();
+
+        Session session = JpaHelper.getServerSession(emf);
+
+        QUERIES.forEach(name -> {
+            DatabaseQuery query = session.getQuery(name);
+
+            if (query instanceof ReadQuery) {
+                ((ReadQuery) query).setQueryResultsCachePolicy(new QueryResultsCachePolicy(new TimeToLiveCacheInvalidationPolicy(TTL), SIZE));
+            }
+        });
+
+        // Changes made through the persistence context invalidate cached results by themselves, bulk JPQL updates and deletes do not
+        session.getEventManager().addListener(new SessionEventAdapter() {
+            @Override
+            public void postExecuteQuery(SessionEvent event) {
+                DatabaseQuery query = event.getQuery();
+
+                if (query instanceof ModifyAllQuery && ENTITIES.contains(query.getReferenceClass())) {
+                    session.getIdentityMapAccessor().invalidateQueryCache(query.getReferenceClass());
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops cached instances and cached query results for the given entities.
+     *
+     * @param emf Factory owning the shared cache
+     * @param entities Entity classes that have changed
+     */
+    public static void invalidate(EntityManagerFactory emf, Class<?>... entities) {
+        evict(emf, entities);
+
+        // The read replica caches the same reference data
+        EntityManagerFactory replica = EMF_Creator.getReadEntityManagerFactory(emf);
+        if (replica != emf) {
+            evict(replica, entities);
+        }
+    }
+
+    private static void evict(EntityManagerFactory emf, Class<?>... entities) {
+        Session session = JpaHelper.getServerSession(emf);
+
+        for (Class<?> entity : entities) {
+            emf.getCache().evict(entity);
+            session.getIdentityMapAccessor().invalidateQueryCache(entity);
+        }
+    }
+
+    public static List<CacheMetricsDTO> getMetrics(EntityManagerFactory emf) {
+        List<CacheMetricsDTO> metrics = new ArrayList<>();
+        SessionProfiler profiler = JpaHelper.getServerSession(emf).getProfiler();
+
+        if (!(profiler instanceof CacheProfiler)) {
+            return metrics;
+        }
+
+        CacheProfiler cacheProfiler = (CacheProfiler) profiler;
+
+        ENTITIES.forEach(entity -> {
+            metrics.add(new CacheMetricsDTO(entity.getSimpleName(), cacheProfiler.getHits(entity), cacheProfiler.getMisses(entity), SIZE, TTL));
+        });
+
+        return metrics;
+    }
+
+    /**
+     * Applies the time to live to the reference entity descriptors.
+     */
+    public static class Customizer implements DescriptorCustomizer {
+
+        @Override
+        public void customize(ClassDescriptor descriptor) {
+            descriptor.setCacheInvalidationPolicy(new TimeToLiveCacheInvalidationPolicy(TTL));
+        }
+
+    }
+
+}
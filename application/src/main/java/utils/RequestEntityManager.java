@@ -0,0 +1,208 @@
+package utils;
+
+import dtos.EntityManagerMetricsDTO;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * Request scoped unit of work.
+ *
+ * While a request is open on the current thread, every facade gets the same
+ * EntityManager per factory. The facades still close what they get, so the
+ * shared manager is handed out behind a proxy that ignores close, and the
+ * manager itself is closed when the request ends. Outside a request (tests,
+ * background jobs) a new EntityManager is created on every call.
+ *
+ * Read methods ask for getReadEntityManager, which uses the read replica
+ * factory unless the request has to read its own writes (see
+ * RequestEntityManagerFilter).
+ *
+ * A session listener tracks the EclipseLink client sessions acquired on the
+ * request thread. Any session still held when the request ends belongs to an
+ * EntityManager that was never closed, and is logged and counted as a leak.
+ *
+ * @author Nicklas Nielsen
+ */
+public class RequestEntityManager {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder OPENED = new LongAdder();
+    private static final LongAdder LEAKED = new LongAdder();
+    private static final LongAdder ROLLED_BACK = new LongAdder();
+
+    /**
+     * Registers the leak detector on the session behind the given factory.
+     *
+     * @param emf Factory to watch
+     */
+    public static void watch(EntityManagerFactory emf) {
+        JpaHelper.getServerSession(emf).getEventManager().addListener(new LeakDetector());
+    }
+
+    /**
+     * Opens a unit of work on the current thread.
+     *
+     * @param readYourWrites Whether reads should go to the primary database
+     * during this request
+     */
+    public static void begin(boolean readYourWrites) {
+        // A scope left behind by a request that never reached end() is closed before the thread is reused
+        if (SCOPE.get() != null) {
+            end();
+        }
+
+        SCOPE.set(new Scope(readYourWrites));
+        REQUESTS.increment();
+    }
+
+    /**
+     * Closes the unit of work on the current thread. Transactions left open
+     * are rolled back, and EntityManagers created outside the scope and not
+     * closed are reported.
+     */
+    public static void end() {
+        Scope scope = SCOPE.get();
+
+        if (scope == null) {
+            return;
+        }
+
+        try {
+            scope.managers.values().forEach(em -> {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                    ROLLED_BACK.increment();
+                    System.out.println("Rolled back a transaction left open at the end of the request");
+                }
+
+                em.close();
+            });
+
+            if (!scope.sessions.isEmpty()) {
+                LEAKED.add(scope.sessions.size());
+                System.out.println(String.format("%d EntityManager(s) still open at the end of the request", scope.sessions.size()));
+            }
+        } finally {
+            SCOPE.remove();
+        }
+    }
+
+    /**
+     * Returns the EntityManager shared by the current request, or a new
+     * EntityManager when no request is open on the current thread.
+     *
+     * @param emf Factory the EntityManager belongs to
+     * @return EntityManager to use for a single facade call
+     */
+    public static EntityManager getEntityManager(EntityManagerFactory emf) {
+        Scope scope = SCOPE.get();
+
+        if (scope == null) {
+            return emf.createEntityManager();
+        }
+
+        return scope.proxies.computeIfAbsent(emf, factory -> {
+            EntityManager em = factory.createEntityManager();
+            scope.managers.put(factory, em);
+            OPENED.increment();
+
+            return share(em);
+        });
+    }
+
+    /**
+     * Returns an EntityManager for read-only work. It belongs to the read
+     * replica of the given factory, or to the factory itself when there is no
+     * replica or the current request reads its own writes.
+     *
+     * @param emf Primary factory
+     * @return EntityManager to use for a single facade read
+     */
+    public static EntityManager getReadEntityManager(EntityManagerFactory emf) {
+        Scope scope = SCOPE.get();
+
+        if (scope != null && scope.readYourWrites) {
+            return getEntityManager(emf);
+        }
+
+        return getEntityManager(EMF_Creator.getReadEntityManagerFactory(emf));
+    }
+
+    /**
+     * Returns an EntityManager of the export factory, see JsonExport.
+     *
+     * @param emf Primary factory
+     * @return EntityManager to stream a single export with
+     */
+    public static EntityManager getExportEntityManager(EntityManagerFactory emf) {
+        return getEntityManager(EMF_Creator.getExportEntityManagerFactory(emf));
+    }
+
+    public static EntityManagerMetricsDTO getMetrics() {
+        return new EntityManagerMetricsDTO(REQUESTS.sum(), OPENED.sum(), LEAKED.sum(), ROLLED_BACK.sum());
+    }
+
+    private static EntityManager share(EntityManager em) {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class}, (proxy, method, args) -> {
+            if ("close".equals(method.getName())) {
+                return null;
+            }
+
+            try {
+                return method.invoke(em, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private static class Scope {
+
+        private final boolean readYourWrites;
+        private final Map<EntityManagerFactory, EntityManager> managers = new HashMap<>();
+        private final Map<EntityManagerFactory, EntityManager> proxies = new HashMap<>();
+        private final Set<Session> sessions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Scope(boolean readYourWrites) {
+            this.readYourWrites = readYourWrites;
+        }
+
+    }
+
+    private static class LeakDetector extends SessionEventAdapter {
+
+        @Override
+        public void postAcquireClientSession(SessionEvent event) {
+            Scope scope = SCOPE.get();
+
+            if (scope != null) {
+                scope.sessions.add(event.getSession());
+            }
+        }
+
+        @Override
+        public void postReleaseClientSession(SessionEvent event) {
+            Scope scope = SCOPE.get();
+
+            if (scope != null) {
+                scope.sessions.remove(event.getSession());
+            }
+        }
+
+    }
+
+}
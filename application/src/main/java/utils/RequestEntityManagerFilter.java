@@ -0,0 +1,59 @@
+package utils;
+
+import java.io.IOException;
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Opens a RequestEntityManager unit of work before authentication and closes
+ * it after every other response filter has run.
+ *
+ * Requests that change data read from the primary database throughout, and
+ * so do GET methods marked with ReadYourWrites. A GET that must see data the
+ * client just changed can ask for the same by sending the Read-Your-Writes
+ * header with the value true.
+ *
+ * @author Nicklas Nielsen
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class RequestEntityManagerFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String READ_YOUR_WRITES_HEADER = "Read-Your-Writes";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) throws IOException {
+        RequestEntityManager.begin(isReadYourWrites(request));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        RequestEntityManager.end();
+    }
+
+    private boolean isReadYourWrites(ContainerRequestContext request) {
+        String method = request.getMethod();
+
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return true;
+        }
+
+        if (resourceInfo.getResourceMethod() != null && resourceInfo.getResourceMethod().isAnnotationPresent(ReadYourWrites.class)) {
+            return true;
+        }
+
+        return Boolean.parseBoolean(request.getHeaderString(READ_YOUR_WRITES_HEADER));
+    }
+
+}
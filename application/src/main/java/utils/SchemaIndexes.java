@@ -0,0 +1,165 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+/**
+ * Secondary indexes the interview and link table queries depend on.
+ *
+ * Schema generation only creates indexes together with new tables, so an
+ * existing database can silently be missing them. On startup every index
+ * below is checked against information_schema. An index counts as present
+ * when any index on the table (including the primary key) starts with the
+ * same columns, a unique index only when a unique index on exactly the same
+ * columns exists. Missing indexes are reported, and created as well when the
+ * environment variable DB_CREATE_MISSING_INDEXES is set to true.
+ *
+ * @author Nicklas Nielsen
+ */
+public class SchemaIndexes {
+
+    private static final List<IndexDefinition> INDEXES = Arrays.asList(
+            new IndexDefinition("users", "idx_users_normalized_email", true, "normalized_email"),
+            new IndexDefinition("users", "idx_users_recovery_code_expiration", "recovery_code_expiration"),
+            new IndexDefinition("persons", "idx_persons_normalized_firstname", "normalized_firstname"),
+            new IndexDefinition("persons", "idx_persons_normalized_middlename", "normalized_middlename"),
+            new IndexDefinition("persons", "idx_persons_normalized_lastname", "normalized_lastname", "normalized_firstname"),
+            new IndexDefinition("interviews", "idx_interviews_company_deleted_held", "COMPANY_ID", "DELETED", "HELD"),
+            new IndexDefinition("interviews", "idx_interviews_held", "HELD"),
+            new IndexDefinition("interviews", "idx_interviews_deleted", "DELETED"),
+            new IndexDefinition("interview_question_answers", "idx_interview_question_answers_user_question", "USER_ID", "INTERVIEWQUESTION_ID"),
+            new IndexDefinition("lk_managers_interviews", "idx_lk_managers_interviews_manager", "fk_manager"),
+            new IndexDefinition("lk_managers_interviews", "idx_lk_managers_interviews_interview", "fk_interview"),
+            new IndexDefinition("lk_empployees_interviews", "idx_lk_empployees_interviews_employee", "fk_employee"),
+            new IndexDefinition("lk_empployees_interviews", "idx_lk_empployees_interviews_interview", "fk_interview"),
+            new IndexDefinition("lk_managers_employees", "idx_lk_managers_employees_employee", "fk_employee"),
+            new IndexDefinition("lk_managers_employees", "idx_lk_managers_employees_manager", "fk_manager"),
+            new IndexDefinition("revoked_jwts", "idx_revoked_jwts_expire", "expire"));
+
+    /**
+     * Reports, and optionally creates, the indexes missing in the database
+     * behind the given factory.
+     *
+     * @param emf Factory to check
+     * @return The indexes that were missing when the check ran
+     */
+    public static List<String> verify(EntityManagerFactory emf) {
+        List<String> missing = new ArrayList<>();
+        boolean create = Boolean.parseBoolean(System.getenv("DB_CREATE_MISSING_INDEXES"));
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            Map<String, List<IndexDefinition>> existing = getExistingIndexes(em);
+
+            for (IndexDefinition index : INDEXES) {
+                if (index.isCoveredBy(existing.get(index.table))) {
+                    continue;
+                }
+
+                missing.add(index.name);
+                System.out.println(String.format("Missing index %s on %s %s", index.name, index.table, index.columns));
+
+                if (create) {
+                    em.getTransaction().begin();
+                    em.createNativeQuery(index.toDDL()).executeUpdate();
+                    em.getTransaction().commit();
+                    System.out.println(String.format("Created index %s", index.name));
+                }
+            }
+        } catch (PersistenceException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+
+            System.out.println("Unable to verify database indexes: " + e.getMessage());
+        } finally {
+            em.close();
+        }
+
+        return missing;
+    }
+
+    private static Map<String, List<IndexDefinition>> getExistingIndexes(EntityManager em) {
+        Map<String, Map<String, IndexDefinition>> indexesByTable = new HashMap<>();
+
+        Query query = em.createNativeQuery("SELECT LOWER(TABLE_NAME), INDEX_NAME, NON_UNIQUE, LOWER(COLUMN_NAME) FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX");
+
+        List<Object[]> rows = query.getResultList();
+        rows.forEach(row -> {
+            String table = (String) row[0];
+            String name = (String) row[1];
+            boolean unique = ((Number) row[2]).intValue() == 0;
+
+            indexesByTable
+                    .computeIfAbsent(table, key -> new HashMap<>())
+                    .computeIfAbsent(name, key -> new IndexDefinition(table, name, unique))
+                    .columns.add((String) row[3]);
+        });
+
+        Map<String, List<IndexDefinition>> existing = new HashMap<>();
+        indexesByTable.forEach((table, indexes) -> {
+            existing.put(table, new ArrayList<>(indexes.values()));
+        });
+
+        return existing;
+    }
+
+    private static class IndexDefinition {
+
+        private final String table;
+        private final String name;
+        private final boolean unique;
+        private final List<String> columns;
+
+        private IndexDefinition(String table, String name, String... columns) {
+            this(table, name, false, columns);
+        }
+
+        private IndexDefinition(String table, String name, boolean unique, String... columns) {
+            this.table = table;
+            this.name = name;
+            this.unique = unique;
+            this.columns = new ArrayList<>(Arrays.asList(columns));
+        }
+
+        private boolean isCoveredBy(List<IndexDefinition> indexes) {
+            if (indexes == null) {
+                return false;
+            }
+
+            return indexes.stream().anyMatch(index -> {
+                // A unique index is only enforced by a unique index on exactly the same columns
+                if (unique && (!index.unique || index.columns.size() != columns.size())) {
+                    return false;
+                }
+
+                if (index.columns.size() < columns.size()) {
+                    return false;
+                }
+
+                for (int i = 0; i < columns.size(); i++) {
+                    if (!columns.get(i).equalsIgnoreCase(index.columns.get(i))) {
+                        return false;
+                    }
+                }
+
+                return true;
+            });
+        }
+
+        private String toDDL() {
+            return String.format("CREATE %sINDEX %s ON %s (%s)", unique ? "UNIQUE " : "", name, table, String.join(", ", columns));
+        }
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package utils;
+
+/**
+ * Reads numeric settings from environment variables. A setting that is not
+ * set, or is not a number, falls back to the given default.
+ *
+ * @author Nicklas Nielsen
+ */
+public class Settings {
+
+    private Settings() {
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        return (int) getLong(name, defaultValue);
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates entity ids as version 7 UUIDs: a 48 bit Unix timestamp in
+ * milliseconds followed by random bits. Ids created close together in time
+ * sort close together, so inserts land at the end of the clustered index
+ * instead of splitting random pages.
+ *
+ * Only use these for ids. Activation and recovery codes must stay random
+ * (UUID.randomUUID()), as a timestamp makes them easier to guess.
+ *
+ * @author Nicklas Nielsen
+ */
+public class TimeOrderedUUID {
+
+    /**
+     * Sorts before every generated id, used to start keyset pagination.
+     */
+    public static final UUID MIN = new UUID(0, 0);
+
+    public static UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timestamp = System.currentTimeMillis();
+
+        // 48 bit timestamp, 4 bit version (7), 12 random bits
+        long mostSignificantBits = (timestamp << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+
+        // 2 bit variant (10), 62 random bits
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+}
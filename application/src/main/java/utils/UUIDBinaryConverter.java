@@ -0,0 +1,74 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.converters.Converter;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Stores UUID attributes as BINARY(16) in big-endian order, so the database
+ * sorts time ordered ids by creation time.
+ *
+ * This is an EclipseLink converter rather than a JPA AttributeConverter, as
+ * JPA does not apply converters to @Id attributes. It is registered once as
+ * "uuid" (see User) and used with @Convert("uuid").
+ *
+ * @author Nicklas Nielsen
+ */
+public class UUIDBinaryConverter implements Converter {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "uuid";
+
+    @Override
+    public Object convertObjectValueToDataValue(Object objectValue, Session session) {
+        if (objectValue == null) {
+            return null;
+        }
+
+        // Query parameters may still arrive as strings
+        UUID uuid = objectValue instanceof UUID ? (UUID) objectValue : UUID.fromString(objectValue.toString());
+
+        return toBytes(uuid);
+    }
+
+    /**
+     * Packs an id the way it is stored, for native queries.
+     *
+     * @param uuid Id to pack
+     * @return The 16 bytes of the id, most significant first
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Override
+    public Object convertDataValueToObjectValue(Object dataValue, Session session) {
+        if (dataValue == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap((byte[]) dataValue);
+
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public void initialize(DatabaseMapping mapping, Session session) {
+        if (mapping.isDirectToFieldMapping()) {
+            ((AbstractDirectMapping) mapping).getField().setType(byte[].class);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package utils.sanitizer;
+
+import errorhandling.exceptions.SanitizationException;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class Pagination {
+
+    private static final int LIMIT_DEFAULT = 50;
+    private static final int LIMIT_MINIMUM = 1;
+    private static final int LIMIT_MAXIMUM = 200;
+
+    public static int sanitizeLimit(Integer input) throws SanitizationException {
+        if (input == null) {
+            return LIMIT_DEFAULT;
+        }
+
+        if (input < LIMIT_MINIMUM || input > LIMIT_MAXIMUM) {
+            throw new SanitizationException("Invalid limit");
+        }
+
+        return input;
+    }
+
+}
@@ -8,7 +8,7 @@ import org.junit.jupiter.api.Test;
  *
  * @author Nicklas Nielsen
  */
-public class InterviewTemplateDTO {
+public class InterviewTemplateDTOTest {
 
     @Test
     @Disabled
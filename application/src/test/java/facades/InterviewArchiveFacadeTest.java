@@ -0,0 +1,127 @@
+package facades;
+
+import dtos.InterviewDTO;
+import dtos.InterviewQuestionDTO;
+import entities.Interview;
+import errorhandling.exceptions.InterviewNotFoundException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewArchiveFacadeTest {
+
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+    private static InterviewArchiveFacade interviewArchiveFacade;
+
+    private InterviewTestData data;
+    private Interview interview;
+    private UUID questionId;
+
+    @BeforeAll
+    public static void setUpClass() {
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+        interviewArchiveFacade = InterviewArchiveFacade.getInterviewArchiveFacade(emf);
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        data = InterviewTestData.create(emf, 2);
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+
+        interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+        questionId = interview.getInterviewQuestions().get(0).getId();
+
+        interviewFacade.update(interview, data.getEmployee(), "Opsummering", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @Test
+    public void archive_removes_interview() throws Exception {
+        // Act
+        int actual = interviewArchiveFacade.archive(LocalDateTime.now().plusYears(1));
+
+        // Assert
+        assertEquals(1, actual);
+        assertThrows(InterviewNotFoundException.class, () -> {
+            interviewFacade.getById(interview.getId());
+        });
+        assertTrue(interviewFacade.getByUser(data.getEmployee()).isEmpty());
+    }
+
+    @Test
+    public void restore_returns_archived_interview() throws Exception {
+        // Arrange
+        interviewArchiveFacade.archive(LocalDateTime.now().plusYears(1));
+
+        // Act
+        interviewArchiveFacade.restore(data.getCompany(), interview.getId());
+
+        // Assert
+        InterviewDTO actual = interviewFacade.getDTOById(interview.getId());
+        assertEquals("Opsummering", actual.getSummary());
+        assertEquals(2, actual.getInterviewQuestions().size());
+
+        InterviewQuestionDTO question = actual.getInterviewQuestions().stream()
+                .filter(questionDTO -> questionDTO.getId().equals(questionId))
+                .findFirst()
+                .get();
+        assertEquals(1, question.getInterviewQuestionAnswers().size());
+        assertEquals("Godt", question.getInterviewQuestionAnswers().get(0).getAnswer());
+        assertEquals(data.getEmployee().getId(), question.getInterviewQuestionAnswers().get(0).getUserId());
+
+        List<UUID> managerIds = actual.getManagers().stream().map(manager -> manager.getId()).collect(Collectors.toList());
+        List<UUID> employeeIds = actual.getEmployees().stream().map(employee -> employee.getId()).collect(Collectors.toList());
+        assertEquals(Collections.singletonList(data.getManager().getId()), managerIds);
+        assertEquals(Collections.singletonList(data.getEmployee().getId()), employeeIds);
+    }
+
+    @Test
+    public void restore_links_interview_to_participants() throws Exception {
+        // Arrange
+        interviewArchiveFacade.archive(LocalDateTime.now().plusYears(1));
+
+        // Act
+        interviewArchiveFacade.restore(data.getCompany(), interview.getId());
+
+        // Assert
+        assertEquals(1, interviewFacade.getByUser(data.getEmployee()).size());
+        assertEquals(1, interviewFacade.getDTOsByManager(data.getManager()).size());
+    }
+
+    @Test
+    public void restore_unknown_interview_not_found() {
+        // Act & Assert
+        assertThrows(InterviewNotFoundException.class, () -> {
+            interviewArchiveFacade.restore(data.getCompany(), UUID.randomUUID());
+        });
+    }
+
+}
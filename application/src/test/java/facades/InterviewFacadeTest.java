@@ -0,0 +1,191 @@
+package facades;
+
+import entities.Interview;
+import entities.InterviewQuestionAnswer;
+import errorhandling.exceptions.DatabaseException;
+import errorhandling.exceptions.InterviewConflictException;
+import errorhandling.exceptions.InterviewNotFoundException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+import utils.RequestEntityManager;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewFacadeTest {
+
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+
+    private InterviewTestData data;
+    private Interview interview;
+    private UUID questionId;
+
+    @BeforeAll
+    public static void setUpClass() {
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @BeforeEach
+    public void setUp() throws DatabaseException {
+        data = InterviewTestData.create(emf, 2);
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+
+        interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+        questionId = interview.getInterviewQuestions().get(0).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    private InterviewQuestionAnswer getAnswer() {
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            List<InterviewQuestionAnswer> answers = em.createNamedQuery("InterviewQuestionAnswer.getByInterviewAndUser", InterviewQuestionAnswer.class)
+                    .setParameter("user", data.getEmployee().getId())
+                    .setParameter("interview", interview.getId())
+                    .getResultList();
+
+            return answers.isEmpty() ? null : answers.get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void update_saves_answer() throws Exception {
+        // Act
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+
+        // Assert
+        assertEquals("Godt", getAnswer().getAnswer());
+    }
+
+    @Test
+    public void update_stale_answer_conflicts() throws Exception {
+        // Arrange
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+        Map<UUID, Long> staleVersions = new HashMap<>();
+        staleVersions.put(questionId, 0L);
+
+        // Act
+        InterviewConflictException actual = assertThrows(InterviewConflictException.class, () -> {
+            interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Skidt"), staleVersions);
+        });
+
+        // Assert
+        assertFalse(actual.isSummary());
+        assertEquals(Collections.singletonList(questionId), actual.getQuestions());
+        assertEquals("Godt", getAnswer().getAnswer());
+    }
+
+    @Test
+    public void update_stale_summary_conflicts() throws Exception {
+        // Arrange
+        long staleVersion = interview.getVersion() + 1;
+
+        // Act
+        InterviewConflictException actual = assertThrows(InterviewConflictException.class, () -> {
+            interviewFacade.update(interview, data.getEmployee(), "Opsummering", staleVersion, Collections.emptyMap(), Collections.emptyMap());
+        });
+
+        // Assert
+        assertTrue(actual.isSummary());
+        assertNull(actual.getInterview().getSummary());
+    }
+
+    @Test
+    public void update_conflict_keeps_request_entities_managed() throws Exception {
+        // Arrange
+        RequestEntityManager.begin(true);
+
+        try {
+            Interview loaded = interviewFacade.getById(interview.getId());
+            long staleVersion = loaded.getVersion() + 1;
+
+            // Act
+            assertThrows(InterviewConflictException.class, () -> {
+                interviewFacade.update(loaded, data.getEmployee(), "Opsummering", staleVersion, Collections.emptyMap(), Collections.emptyMap());
+            });
+
+            // Assert
+            assertTrue(RequestEntityManager.getEntityManager(emf).contains(loaded));
+            assertFalse(RequestEntityManager.getEntityManager(emf).getTransaction().isActive());
+        } finally {
+            RequestEntityManager.end();
+        }
+    }
+
+    @Test
+    public void update_saved_keeps_request_entities_managed() throws Exception {
+        // Arrange
+        RequestEntityManager.begin(true);
+
+        try {
+            Interview loaded = interviewFacade.getById(interview.getId());
+
+            // Act
+            interviewFacade.update(loaded, data.getEmployee(), "Opsummering", loaded.getVersion(), Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+
+            // Assert
+            assertTrue(RequestEntityManager.getEntityManager(emf).contains(loaded));
+            assertEquals("Opsummering", loaded.getSummary());
+        } finally {
+            RequestEntityManager.end();
+        }
+
+        assertEquals("Godt", getAnswer().getAnswer());
+    }
+
+    @Test
+    public void update_deleted_interview_not_found() throws Exception {
+        // Arrange
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM interview_timeline").executeUpdate();
+            em.createNativeQuery("DELETE FROM interview_questions").executeUpdate();
+            em.createNativeQuery("DELETE FROM lk_managers_interviews").executeUpdate();
+            em.createNativeQuery("DELETE FROM lk_empployees_interviews").executeUpdate();
+            em.createNativeQuery("DELETE FROM interviews").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        emf.getCache().evictAll();
+
+        // Act & Assert
+        assertThrows(InterviewNotFoundException.class, () -> {
+            interviewFacade.update(interview, data.getEmployee(), "", null, Collections.emptyMap(), Collections.emptyMap());
+        });
+    }
+
+}
@@ -0,0 +1,174 @@
+package facades;
+
+import dtos.InterviewStatisticDTO;
+import entities.Interview;
+import entities.InterviewQuestion;
+import entities.InterviewQuestionAnswer;
+import entities.User;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewStatisticFacadeTest {
+
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+    private static InterviewStatisticFacade interviewStatisticFacade;
+
+    private InterviewTestData data;
+    private Interview interview;
+    private UUID questionId;
+
+    @BeforeAll
+    public static void setUpClass() {
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+        interviewStatisticFacade = InterviewStatisticFacade.getInterviewStatisticFacade(emf);
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        data = InterviewTestData.create(emf, 2);
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+
+        interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+        questionId = interview.getInterviewQuestions().get(0).getId();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    private InterviewStatisticDTO getStatistic() {
+        YearMonth month = YearMonth.from(interview.getHeld());
+        List<InterviewStatisticDTO> statistics = interviewStatisticFacade.getDTOsByCompany(data.getCompany(), month, month);
+
+        assertEquals(1, statistics.size());
+        return statistics.get(0);
+    }
+
+    @Test
+    public void create_counts_interview() {
+        // Act
+        InterviewStatisticDTO actual = getStatistic();
+
+        // Assert
+        assertEquals(1, actual.getInterviews());
+        assertEquals(0, actual.getCompleted());
+        assertEquals(2, actual.getQuestions());
+        assertEquals(0, actual.getAnsweredQuestions());
+    }
+
+    @Test
+    public void update_counts_first_answer_and_summary() throws Exception {
+        // Act
+        interviewFacade.update(interview, data.getEmployee(), "Opsummering", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+        interviewFacade.update(interview, data.getManager(), "Opsummering", null, Collections.singletonMap(questionId, "Fint"), Collections.emptyMap());
+
+        // Assert
+        InterviewStatisticDTO actual = getStatistic();
+        assertEquals(1, actual.getCompleted());
+        assertEquals(1, actual.getAnsweredQuestions());
+    }
+
+    @Test
+    public void update_cleared_summary_uncounts_completed() throws Exception {
+        // Arrange
+        interviewFacade.update(interview, data.getEmployee(), "Opsummering", null, Collections.emptyMap(), Collections.emptyMap());
+
+        // Act
+        interviewFacade.update(interview, data.getEmployee(), " ", null, Collections.emptyMap(), Collections.emptyMap());
+
+        // Assert
+        assertEquals(0, getStatistic().getCompleted());
+    }
+
+    @Test
+    public void delete_subtracts_interview() throws Exception {
+        // Arrange
+        interviewFacade.update(interview, data.getEmployee(), "Opsummering", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+
+        // Act
+        interviewFacade.delete(interviewFacade.getById(interview.getId()));
+
+        // Assert
+        InterviewStatisticDTO actual = getStatistic();
+        assertEquals(0, actual.getInterviews());
+        assertEquals(0, actual.getCompleted());
+        assertEquals(0, actual.getQuestions());
+        assertEquals(0, actual.getAnsweredQuestions());
+    }
+
+    @Test
+    public void update_racing_first_answers_count_once() throws Exception {
+        // Arrange
+        EntityManager em = emf.createEntityManager();
+        CompletableFuture<Void> racing;
+
+        try {
+            // Answers the question as the manager like update does, without committing yet
+            em.getTransaction().begin();
+
+            InterviewQuestionAnswer answer = new InterviewQuestionAnswer();
+            answer.setUser(em.getReference(User.class, data.getManager().getId()));
+            answer.setInterviewQuestion(em.getReference(InterviewQuestion.class, questionId));
+            answer.setAnswer("Fint");
+            em.persist(answer);
+            em.flush();
+
+            int answered = em.createNamedQuery("InterviewQuestion.markAnswered")
+                    .setParameter("ids", Collections.singletonList(questionId))
+                    .executeUpdate();
+            interviewStatisticFacade.add(em, em.find(Interview.class, interview.getId()), 0, 0, 0, answered);
+
+            // Act
+            racing = CompletableFuture.runAsync(() -> {
+                try {
+                    interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            // Gives the racing update time to reach the question row before the first answer is committed
+            TimeUnit.MILLISECONDS.sleep(500);
+            assertFalse(racing.isDone());
+
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        racing.get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, getStatistic().getAnsweredQuestions());
+    }
+
+}
@@ -0,0 +1,106 @@
+package facades;
+
+import dtos.InterviewTimelineDTO;
+import entities.Interview;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewTimelineFacadeTest {
+
+    private static final int PAGE_LIMIT = 10;
+
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+    private static InterviewTimelineFacade interviewTimelineFacade;
+
+    private InterviewTestData data;
+    private Interview interview;
+
+    @BeforeAll
+    public static void setUpClass() {
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+        interviewTimelineFacade = InterviewTimelineFacade.getInterviewTimelineFacade(emf);
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        data = InterviewTestData.create(emf, 2);
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+
+        interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @Test
+    public void create_adds_entry_per_participant() throws Exception {
+        // Act
+        List<InterviewTimelineDTO> employeeTimeline = interviewTimelineFacade.getUpcomingDTOsByEmployee(data.getEmployee(), null, PAGE_LIMIT);
+        List<InterviewTimelineDTO> managerTimeline = interviewTimelineFacade.getUpcomingDTOsByManager(data.getManager(), null, PAGE_LIMIT);
+
+        // Assert
+        assertEquals(1, employeeTimeline.size());
+        assertEquals(interview.getId(), employeeTimeline.get(0).getId());
+        assertEquals("Trivsel", employeeTimeline.get(0).getTemplateName());
+        assertEquals(2, employeeTimeline.get(0).getQuestions());
+        assertEquals(0, employeeTimeline.get(0).getAnswered());
+        assertTrue(employeeTimeline.get(0).getCounterparts().contains("Anna"));
+
+        assertEquals(1, managerTimeline.size());
+        assertEquals(interview.getId(), managerTimeline.get(0).getId());
+        assertTrue(managerTimeline.get(0).getCounterparts().contains("Bo"));
+
+        assertTrue(interviewTimelineFacade.getPreviousDTOsByEmployee(data.getEmployee(), null, PAGE_LIMIT).isEmpty());
+    }
+
+    @Test
+    public void update_counts_answers_of_user() throws Exception {
+        // Arrange
+        UUID questionId = interview.getInterviewQuestions().get(0).getId();
+
+        // Act
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Fint"), Collections.emptyMap());
+
+        // Assert
+        assertEquals(1, interviewTimelineFacade.getUpcomingDTOsByEmployee(data.getEmployee(), null, PAGE_LIMIT).get(0).getAnswered());
+        assertEquals(0, interviewTimelineFacade.getUpcomingDTOsByManager(data.getManager(), null, PAGE_LIMIT).get(0).getAnswered());
+    }
+
+    @Test
+    public void delete_removes_entries() throws Exception {
+        // Act
+        interviewFacade.delete(interviewFacade.getById(interview.getId()));
+
+        // Assert
+        assertTrue(interviewTimelineFacade.getUpcomingDTOsByEmployee(data.getEmployee(), null, PAGE_LIMIT).isEmpty());
+        assertTrue(interviewTimelineFacade.getUpcomingDTOsByManager(data.getManager(), null, PAGE_LIMIT).isEmpty());
+    }
+
+}
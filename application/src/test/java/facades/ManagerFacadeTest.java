@@ -0,0 +1,102 @@
+package facades;
+
+import dtos.EmployeeDashboardDTO;
+import entities.Interview;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+import utils.UUIDBinaryConverter;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class ManagerFacadeTest {
+
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+    private static ManagerFacade managerFacade;
+
+    private InterviewTestData data;
+
+    @BeforeAll
+    public static void setUpClass() {
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+        managerFacade = ManagerFacade.getManagerFacade(emf);
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        data = InterviewTestData.create(emf, 2);
+
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(2), data.getManager(), data.getEmployee());
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().minusDays(1), data.getManager(), data.getEmployee());
+
+        // Answers one question of one interview
+        Interview interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(interview.getInterviewQuestions().get(0).getId(), "Godt"), Collections.emptyMap());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @Test
+    public void get_dashboard_aggregates_interviews() {
+        // Act
+        List<EmployeeDashboardDTO> actual = managerFacade.getDashboard(data.getManager());
+
+        // Assert
+        assertEquals(1, actual.size());
+        assertEquals(data.getEmployee().getId(), actual.get(0).getEmployeeId());
+        assertEquals(2, actual.get(0).getUpcoming());
+        assertEquals(1, actual.get(0).getPrevious());
+        assertEquals(5, actual.get(0).getUnansweredQuestions());
+        assertNotNull(actual.get(0).getNextInterview());
+        assertNotNull(actual.get(0).getLastInterview());
+    }
+
+    @Test
+    public void get_dashboard_skips_deleted_employees() {
+        // Arrange
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("UPDATE users SET deleted = ? WHERE id = ?")
+                    .setParameter(1, LocalDateTime.now())
+                    .setParameter(2, UUIDBinaryConverter.toBytes(data.getEmployee().getId()))
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        // Act
+        List<EmployeeDashboardDTO> actual = managerFacade.getDashboard(data.getManager());
+
+        // Assert
+        assertTrue(actual.isEmpty());
+    }
+
+}
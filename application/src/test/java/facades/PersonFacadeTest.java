@@ -15,6 +15,7 @@ import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import utils.Cursor;
 import utils.EMF_Creator;
 
 /**
@@ -1912,4 +1913,42 @@ public class PersonFacadeTest {
         });
     }
 
+    @Test
+    public void search_prefix_follows_cursor() throws SanitizationException {
+        // Arrange
+        List<Person> expected = new ArrayList<>();
+        expected.add(new Person("Nicklas", "Alexander", "Nielsen"));
+        expected.add(new Person("Nikolaj", "", "Nielsen"));
+        expected.add(new Person("Nicolai", "", "Nielsen"));
+
+        Person other = new Person("Mathias", "Haugaard", "Nielsen");
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(other);
+            expected.forEach(person -> {
+                em.persist(person);
+            });
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        // Act
+        List<Person> firstPage = personFacade.search("ni", "", "NIEL", true, null, 2);
+        String cursor = Cursor.nextById(firstPage, 2, Person::getId);
+        List<Person> secondPage = personFacade.search("ni", "", "NIEL", true, cursor, 2);
+
+        List<Person> actual = new ArrayList<>(firstPage);
+        actual.addAll(secondPage);
+
+        // Assert
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.containsAll(expected));
+    }
+
 }
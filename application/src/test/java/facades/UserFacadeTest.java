@@ -1,6 +1,8 @@
 package facades;
 
 import dtos.UserDTO;
+import entities.Person;
+import entities.Role;
 import entities.User;
 import errorhandling.exceptions.DatabaseException;
 import errorhandling.exceptions.SanitizationException;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import utils.Cursor;
 import utils.EMF_Creator;
 
 /**
@@ -63,6 +66,8 @@ public class UserFacadeTest {
         try {
             em.getTransaction().begin();
             em.createNamedQuery("User.deleteAllRows").executeUpdate();
+            em.createNamedQuery("Person.deleteAllRows").executeUpdate();
+            em.createNamedQuery("Role.deleteAllRows").executeUpdate();
             em.getTransaction().commit();
         } finally {
             em.close();
@@ -129,6 +134,129 @@ public class UserFacadeTest {
         assertTrue(actual.containsAll(expected));
     }
 
+    @Test
+    public void get_all_dtos_match_entity_dtos() {
+        // Arrange
+        User user = new User("test@test.test", "test123");
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(user);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        UserDTO expected = new UserDTO(user);
+
+        // Act
+        List<UserDTO> actual = userFacade.getAllDTOs();
+
+        // Assert
+        assertEquals(1, actual.size());
+        assertEquals(expected, actual.get(0));
+    }
+
+    @Test
+    public void get_all_dtos_match_entity_dtos_with_person() {
+        // Arrange
+        User user = new User("test@test.test", "test123");
+        Person person = new Person("Test", "", "Testesen");
+        user.setPerson(person);
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(person);
+            em.persist(user);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        UserDTO expected = new UserDTO(user);
+
+        // Act
+        List<UserDTO> actual = userFacade.getAllDTOs();
+
+        // Assert
+        assertEquals(1, actual.size());
+        assertEquals(expected, actual.get(0));
+    }
+
+    @Test
+    public void get_all_dtos_match_entity_dtos_with_roles() {
+        // Arrange
+        User user = new User("test@test.test", "test123");
+        Role admin = new Role("ADMIN", false);
+        Role userRole = new Role("USER", true);
+
+        // Added out of order, both sides list the roles by type
+        user.addRole(userRole);
+        user.addRole(admin);
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(admin);
+            em.persist(userRole);
+            em.persist(user);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        emf.getCache().evictAll();
+        UserDTO expected = userFacade.getAll().stream().map(UserDTO::new).findFirst().get();
+
+        // Act
+        List<UserDTO> actual = userFacade.getAllDTOs();
+
+        // Assert
+        assertEquals(1, actual.size());
+        assertEquals(2, actual.get(0).getRoleDTOs().size());
+        assertEquals(expected, actual.get(0));
+    }
+
+    @Test
+    public void get_page_follows_cursor() throws SanitizationException {
+        // Arrange
+        List<User> expected = new ArrayList<>();
+        expected.add(new User("test1@test.test", "test123"));
+        expected.add(new User("test2@test.test", "test123"));
+        expected.add(new User("test3@test.test", "test123"));
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            expected.forEach(user -> {
+                em.persist(user);
+            });
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        // Act
+        List<User> first = userFacade.getPage(null, 2);
+        String cursor = Cursor.nextById(first, 2, User::getId);
+        List<User> second = userFacade.getPage(cursor, 2);
+
+        // Assert
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertNull(Cursor.nextById(second, 2, User::getId));
+
+        List<User> actual = new ArrayList<>(first);
+        actual.addAll(second);
+        assertTrue(actual.containsAll(expected));
+    }
+
     @Test
     public void get_all_dtos_empty_list() {
         // Act
@@ -252,6 +380,28 @@ public class UserFacadeTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void get_by_email_ignores_case() throws UserNotFoundException, SanitizationException {
+        // Arrange
+        User expected = new User("Test@Test.test", "test123");
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(expected);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        // Act
+        User actual = userFacade.getByEmail("test@TEST.TEST");
+
+        // Assert
+        assertEquals(expected, actual);
+    }
+
     @Test
     public void get_by_email_not_found() {
         // Arrange
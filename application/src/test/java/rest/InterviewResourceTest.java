@@ -0,0 +1,159 @@
+package rest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import entities.Interview;
+import facades.InterviewFacade;
+import io.restassured.RestAssured;
+import static io.restassured.RestAssured.given;
+import io.restassured.parsing.Parser;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriBuilder;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.EMF_Creator;
+import utils.InterviewTestData;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewResourceTest {
+
+    private static final int SERVER_PORT = 7777;
+    private static final String SERVER_URL = "http://localhost/";
+
+    static final URI BASE_URI = UriBuilder.fromUri(SERVER_URL).port(SERVER_PORT).build();
+    private static HttpServer httpServer;
+    private static EntityManagerFactory emf;
+    private static InterviewFacade interviewFacade;
+
+    private final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private InterviewTestData data;
+    private Interview interview;
+    private UUID questionId;
+
+    static HttpServer startServer() {
+        ResourceConfig rc = ResourceConfig.forApplication(new ApplicationConfig());
+        return GrizzlyHttpServerFactory.createHttpServer(BASE_URI, rc);
+    }
+
+    @BeforeAll
+    public static void setUpClass() {
+        EMF_Creator.startREST_TestWithDB();
+        emf = EMF_Creator.createEntityManagerFactoryForTest();
+        interviewFacade = InterviewFacade.getInterviewFacade(emf);
+
+        httpServer = startServer();
+        RestAssured.baseURI = SERVER_URL;
+        RestAssured.port = SERVER_PORT;
+        RestAssured.defaultParser = Parser.JSON;
+
+        InterviewTestData.deleteAll(emf);
+    }
+
+    @AfterAll
+    public static void tearDownClass() {
+        InterviewTestData.deleteAll(emf);
+
+        EMF_Creator.endREST_TestWithDB();
+        httpServer.shutdownNow();
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        data = InterviewTestData.create(emf, 1);
+        interviewFacade.create(data.getTemplate(), LocalDateTime.now().plusDays(1), data.getManager(), data.getEmployee());
+
+        interview = interviewFacade.getByUser(data.getEmployee()).get(0);
+        questionId = interview.getInterviewQuestions().get(0).getId();
+
+        interviewFacade.update(interview, data.getEmployee(), "", null, Collections.singletonMap(questionId, "Godt"), Collections.emptyMap());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterviewTestData.deleteAll(emf);
+    }
+
+    private String employeeLogin() {
+        JsonObject jsonRequest = new JsonObject();
+        jsonRequest.addProperty("email", data.getEmployee().getEmail());
+        jsonRequest.addProperty("password", InterviewTestData.PASSWORD);
+
+        return given()
+                .contentType(APPLICATION_JSON)
+                .body(GSON.toJson(jsonRequest))
+                .when().post("/auth/login")
+                .then()
+                .extract()
+                .header("Authentication");
+    }
+
+    private String getUpdate(String answer, long answerVersion) {
+        JsonObject question = new JsonObject();
+        question.addProperty("id", questionId.toString());
+        question.addProperty("value", answer);
+        question.addProperty("version", answerVersion);
+
+        JsonArray questions = new JsonArray();
+        questions.add(question);
+
+        JsonObject jsonRequest = new JsonObject();
+        jsonRequest.addProperty("summary", "");
+        jsonRequest.add("questions", questions);
+
+        return GSON.toJson(jsonRequest);
+    }
+
+    @Test
+    public void update_current_version() {
+        // Arrange
+        String jwt = employeeLogin();
+
+        // Act
+        given()
+                .header("Authentication", jwt)
+                .contentType(APPLICATION_JSON)
+                .body(getUpdate("Skidt", 1))
+                .when().put("interview/" + interview.getId().toString())
+                .then().statusCode(Status.OK.getStatusCode());
+    }
+
+    @Test
+    public void update_stale_version_conflict() {
+        // Arrange
+        String expected = questionId.toString();
+        String jwt = employeeLogin();
+
+        // Act
+        List<String> actual = given()
+                .header("Authentication", jwt)
+                .contentType(APPLICATION_JSON)
+                .body(getUpdate("Skidt", 0))
+                .when().put("interview/" + interview.getId().toString())
+                .then().statusCode(Status.CONFLICT.getStatusCode())
+                .extract().path("conflicts.questions");
+
+        // Assert
+        assertEquals(Collections.singletonList(expected), actual);
+    }
+
+}
@@ -12,13 +12,17 @@ import io.restassured.parsing.Parser;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriBuilder;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.glassfish.grizzly.http.server.HttpServer;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.server.ResourceConfig;
@@ -155,6 +159,15 @@ public class UserResourceTest {
         return login(admin.getEmail(), "password123");
     }
 
+    // An empty copy of the test database, standing in for a read replica that has not caught up yet
+    private EntityManagerFactory createReplicaBehind() {
+        Map<String, String> props = new HashMap<>();
+        props.put("javax.persistence.jdbc.url", "jdbc:mysql://localhost:3306/application_test_replica?createDatabaseIfNotExist=true");
+        props.put(PersistenceUnitProperties.SESSION_NAME, "puTest-replica");
+
+        return Persistence.createEntityManagerFactory("puTest", props);
+    }
+
     private String login(String email, String password) {
         JsonObject jsonRequest = new JsonObject();
         jsonRequest.addProperty("email", email);
@@ -169,6 +182,63 @@ public class UserResourceTest {
                 .header("Authentication");
     }
 
+    @Test
+    public void add_manager_with_replica_behind() {
+        // Arrange
+        Role hrRole = new Role("HR");
+        User hr = new User("hr@hr.hr", "password123");
+        hr.addRole(hrRole);
+        hr.activate();
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(hr);
+            em.persist(hrRole);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        String adminJwt = adminLogin();
+        String hrJwt = login(hr.getEmail(), "password123");
+        EntityManagerFactory replica = createReplicaBehind();
+        EMF_Creator.setReadEntityManagerFactoryForTest(emf, replica);
+
+        try {
+            // Plain reads go to the replica, which has none of the users yet
+            given()
+                    .header("Authentication", adminJwt)
+                    .contentType(APPLICATION_JSON)
+                    .when().get("user/" + user.getId().toString())
+                    .then().statusCode(Status.BAD_REQUEST.getStatusCode());
+
+            // Act
+            given()
+                    .header("Authentication", hrJwt)
+                    .contentType(APPLICATION_JSON)
+                    .when().get("user/" + user.getId().toString() + "/add_manager/" + admin.getId().toString())
+                    .then().statusCode(Status.OK.getStatusCode());
+        } finally {
+            EMF_Creator.setReadEntityManagerFactoryForTest(emf, null);
+            replica.close();
+        }
+
+        // Assert
+        emf.getCache().evictAll();
+        em = emf.createEntityManager();
+
+        try {
+            List<User> managers = em.find(User.class, user.getId()).getManagers();
+
+            assertEquals(1, managers.size());
+            assertEquals(admin.getId(), managers.get(0).getId());
+        } finally {
+            em.close();
+        }
+    }
+
     @Test
     public void get_all() {
         // Arrange
@@ -217,6 +287,20 @@ public class UserResourceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void export_streams_all() {
+        // Arrange
+        String jwt = adminLogin();
+
+        // Act
+        given()
+                .header("Authentication", jwt)
+                .contentType(APPLICATION_JSON)
+                .when().get("user/export")
+                .then().statusCode(Status.OK.getStatusCode())
+                .assertThat().body("size()", is(2));
+    }
+
     @Test
     public void get_by_id_found() {
         // Arrange
@@ -0,0 +1,91 @@
+package security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class KeyRingTest {
+
+    @Test
+    public void token_verifies_with_signing_key() throws Exception {
+        // Arrange
+        KeyRing keyRing = new KeyRing(KeyRing.parse("new:" + randomKey() + ",old:" + randomKey()), "new");
+
+        // Act
+        SignedJWT signedJWT = sign(keyRing);
+
+        // Assert
+        assertEquals("new", signedJWT.getHeader().getKeyID());
+        assertTrue(signedJWT.verify(keyRing.getVerifier("new")));
+        assertFalse(signedJWT.verify(keyRing.getVerifier("old")));
+    }
+
+    @Test
+    public void token_of_old_key_verifies_until_it_retires() throws Exception {
+        // Arrange
+        String oldKey = randomKey();
+        KeyRing before = new KeyRing(KeyRing.parse("old:" + oldKey), null);
+        SignedJWT signedJWT = sign(before);
+
+        // Act
+        KeyRing overlap = new KeyRing(KeyRing.parse("new:" + randomKey() + ",old:" + oldKey + ":" + Instant.now().plusSeconds(3600)), "new");
+        KeyRing after = new KeyRing(KeyRing.parse("new:" + randomKey() + ",old:" + oldKey + ":" + Instant.now().minusSeconds(1)), "new");
+
+        // Assert
+        assertTrue(signedJWT.verify(overlap.getVerifier("old")));
+        assertNull(after.getVerifier("old"));
+        assertNull(after.getVerifier("unknown"));
+        assertNull(after.getVerifier(null));
+    }
+
+    @Test
+    public void retired_signing_key_does_not_sign() throws Exception {
+        // Arrange
+        KeyRing keyRing = new KeyRing(KeyRing.parse("old:" + randomKey() + ":" + Instant.now().plusMillis(200)), null);
+
+        // Act
+        TimeUnit.MILLISECONDS.sleep(300);
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> keyRing.getSigner());
+    }
+
+    @Test
+    public void short_key_is_rejected() {
+        // Arrange
+        String shortKey = Base64.getEncoder().encodeToString(new byte[16]);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> KeyRing.parse("short:" + shortKey));
+    }
+
+    private static SignedJWT sign(KeyRing keyRing) throws Exception {
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.HS512)
+                .keyID(keyRing.getSigningKeyId())
+                .build();
+
+        SignedJWT signedJWT = new SignedJWT(header, new JWTClaimsSet.Builder().subject("user").build());
+        signedJWT.sign(keyRing.getSigner());
+
+        return signedJWT;
+    }
+
+    private static String randomKey() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+
+        return Base64.getEncoder().encodeToString(secret);
+    }
+
+}
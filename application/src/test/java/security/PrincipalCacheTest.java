@@ -0,0 +1,60 @@
+package security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class PrincipalCacheTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Test
+    public void cached_principal_is_returned() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(10);
+        UserPrincipal principal = new UserPrincipal("id", new String[]{"USER"});
+
+        // Act
+        cache.put("token", principal, "token-id", "key-id", System.currentTimeMillis() + HOUR);
+        PrincipalCache.Entry entry = cache.get("token");
+
+        // Assert
+        assertSame(principal, entry.getPrincipal());
+        assertEquals("token-id", entry.getTokenId());
+        assertEquals("key-id", entry.getKeyId());
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void expired_principal_is_not_returned() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(10);
+
+        // Act
+        cache.put("token", new UserPrincipal("id", new String[]{"USER"}), "token-id", "key-id", System.currentTimeMillis() - 1);
+
+        // Assert
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void size_is_bounded() {
+        // Arrange
+        PrincipalCache cache = new PrincipalCache(10);
+        long expire = System.currentTimeMillis() + HOUR;
+
+        // Act
+        for (int i = 0; i < 25; i++) {
+            cache.put("token" + i, new UserPrincipal("id", new String[]{"USER"}), "token-id" + i, "key-id", expire);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 10);
+        assertNotNull(cache.get("token24"));
+    }
+
+}
@@ -0,0 +1,85 @@
+package security;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class RevokedTokenIndexTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Test
+    public void added_token_is_revoked() {
+        // Arrange
+        RevokedTokenIndex index = new RevokedTokenIndex();
+        String id = UUID.randomUUID().toString();
+
+        // Act
+        index.add(id, System.currentTimeMillis() + HOUR);
+
+        // Assert
+        assertTrue(index.contains(id));
+        assertFalse(index.contains(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void expired_token_is_not_revoked() {
+        // Arrange
+        RevokedTokenIndex index = new RevokedTokenIndex();
+        String id = UUID.randomUUID().toString();
+
+        // Act
+        index.add(id, System.currentTimeMillis() - 1);
+
+        // Assert
+        assertFalse(index.contains(id));
+    }
+
+    @Test
+    public void replace_keeps_local_and_drops_expired() {
+        // Arrange
+        RevokedTokenIndex index = new RevokedTokenIndex();
+        String local = UUID.randomUUID().toString();
+        String remote = UUID.randomUUID().toString();
+        String expired = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        Map<String, Long> revoked = new HashMap<>();
+        revoked.put(remote, now + HOUR);
+        revoked.put(expired, now - 1);
+
+        index.add(local, now + HOUR);
+
+        // Act
+        index.replace(revoked);
+
+        // Assert
+        assertTrue(index.isLoaded());
+        assertTrue(index.contains(local));
+        assertTrue(index.contains(remote));
+        assertFalse(index.contains(expired));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void not_loaded_until_replaced() {
+        // Arrange
+        RevokedTokenIndex index = new RevokedTokenIndex();
+
+        // Act
+        boolean before = index.isLoaded();
+        index.replace(Collections.emptyMap());
+
+        // Assert
+        assertFalse(before);
+        assertTrue(index.isLoaded());
+    }
+
+}
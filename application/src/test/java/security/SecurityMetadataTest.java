@@ -0,0 +1,90 @@
+package security;
+
+import java.util.Arrays;
+import javax.annotation.security.DenyAll;
+import javax.annotation.security.PermitAll;
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.Path;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class SecurityMetadataTest {
+
+    private static final UserPrincipal USER = new UserPrincipal("user", new String[]{"USER"});
+    private static final UserPrincipal ADMIN = new UserPrincipal("admin", new String[]{"ADMIN"});
+
+    @Path("test")
+    @RolesAllowed("USER")
+    public static class Resource {
+
+        public void inherited() {
+        }
+
+        @RolesAllowed("ADMIN")
+        public void admin() {
+        }
+
+        @PermitAll
+        public void permitted() {
+        }
+
+        @DenyAll
+        public void denied() {
+        }
+
+    }
+
+    @Path("open")
+    public static class OpenResource {
+
+        public void open() {
+        }
+
+    }
+
+    private static SecurityMetadata.Rule rule(Class<?> resourceClass, String method) throws NoSuchMethodException {
+        SecurityMetadata.register(Arrays.asList(Resource.class, OpenResource.class));
+
+        return SecurityMetadata.get(resourceClass, resourceClass.getMethod(method));
+    }
+
+    @Test
+    public void class_roles_apply_to_unannotated_method() throws NoSuchMethodException {
+        // Act
+        SecurityMetadata.Rule rule = rule(Resource.class, "inherited");
+
+        // Assert
+        assertTrue(rule.isSecured());
+        assertTrue(rule.isAllowed(USER));
+        assertFalse(rule.isAllowed(ADMIN));
+    }
+
+    @Test
+    public void method_annotations_win_over_class() throws NoSuchMethodException {
+        // Act
+        SecurityMetadata.Rule admin = rule(Resource.class, "admin");
+        SecurityMetadata.Rule permitted = rule(Resource.class, "permitted");
+        SecurityMetadata.Rule denied = rule(Resource.class, "denied");
+
+        // Assert
+        assertFalse(admin.isAllowed(USER));
+        assertTrue(admin.isAllowed(ADMIN));
+        assertTrue(permitted.isSecured());
+        assertTrue(permitted.isAllowed(ADMIN));
+        assertFalse(denied.isAllowed(USER));
+    }
+
+    @Test
+    public void unannotated_resource_is_public() throws NoSuchMethodException {
+        // Act
+        SecurityMetadata.Rule rule = rule(OpenResource.class, "open");
+
+        // Assert
+        assertFalse(rule.isSecured());
+    }
+
+}
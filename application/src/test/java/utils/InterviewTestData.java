@@ -0,0 +1,150 @@
+package utils;
+
+import entities.Company;
+import entities.InterviewQuestionTemplate;
+import entities.InterviewTemplate;
+import entities.Person;
+import entities.Role;
+import entities.User;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Company, interview template and users shared by the interview tests. The
+ * manager and the employee both hold the USER role and sign in with
+ * PASSWORD.
+ *
+ * @author Nicklas Nielsen
+ */
+public class InterviewTestData {
+
+    public static final String PASSWORD = "password123";
+
+    // Children before parents, the link tables have foreign keys to both sides
+    private static final String[] TABLES = {
+        "interview_question_answers",
+        "interview_questions",
+        "interview_timeline",
+        "interview_statistics",
+        "interview_archives",
+        "lk_managers_interviews",
+        "lk_empployees_interviews",
+        "interviews",
+        "lk_interview_templates_interview_question_templates",
+        "interview_question_templates",
+        "interview_templates",
+        "lk_managers_employees",
+        "lk_users_roles",
+        "lk_user_person",
+        "users",
+        "roles",
+        "persons",
+        "company_statuses",
+        "companies"
+    };
+
+    private final Company company;
+    private final InterviewTemplate template;
+    private final User manager;
+    private final User employee;
+
+    private InterviewTestData(Company company, InterviewTemplate template, User manager, User employee) {
+        this.company = company;
+        this.template = template;
+        this.manager = manager;
+        this.employee = employee;
+    }
+
+    /**
+     * @param emf Factory of the test database
+     * @param questions Number of questions in the template
+     * @return The persisted data
+     */
+    public static InterviewTestData create(EntityManagerFactory emf, int questions) {
+        Company company = new Company("Test ApS", "12345678");
+        InterviewTemplate template = new InterviewTemplate("Trivsel", 1, 1);
+        Role role = new Role("USER", true);
+
+        User manager = new User("manager@test.test", PASSWORD);
+        User employee = new User("employee@test.test", PASSWORD);
+        Person managerPerson = new Person("Anna", "", "Hansen");
+        Person employeePerson = new Person("Bo", "", "Jensen");
+
+        manager.setPerson(managerPerson);
+        employee.setPerson(employeePerson);
+        employee.addManager(manager);
+
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+            em.persist(company);
+            em.persist(role);
+            em.persist(managerPerson);
+            em.persist(employeePerson);
+
+            for (int i = 1; i <= questions; i++) {
+                InterviewQuestionTemplate questionTemplate = new InterviewQuestionTemplate("Spørgsmål " + i, "Hvordan går det? " + i);
+                em.persist(questionTemplate);
+                template.addInterviewQuestionTemplate(questionTemplate);
+            }
+
+            em.persist(template);
+
+            for (User user : new User[]{manager, employee}) {
+                user.addRole(role);
+                user.activate();
+                user.setCompany(company);
+                company.addUser(user);
+                em.persist(user);
+            }
+
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        return new InterviewTestData(company, template, manager, employee);
+    }
+
+    /**
+     * Deletes every row the interview tests can leave behind, and empties the
+     * shared cache so no test reads an entity another one deleted.
+     *
+     * @param emf Factory of the test database
+     */
+    public static void deleteAll(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+
+        try {
+            em.getTransaction().begin();
+
+            for (String table : TABLES) {
+                em.createNativeQuery("DELETE FROM " + table).executeUpdate();
+            }
+
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        emf.getCache().evictAll();
+    }
+
+    public Company getCompany() {
+        return company;
+    }
+
+    public InterviewTemplate getTemplate() {
+        return template;
+    }
+
+    public User getManager() {
+        return manager;
+    }
+
+    public User getEmployee() {
+        return employee;
+    }
+
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Nicklas Nielsen
+ */
+public class UUIDBinaryConverterTest {
+
+    private final UUIDBinaryConverter converter = new UUIDBinaryConverter();
+
+    @Test
+    public void round_trip() {
+        // Arrange
+        UUID expected = TimeOrderedUUID.generate();
+
+        // Act
+        byte[] data = (byte[]) converter.convertObjectValueToDataValue(expected, null);
+        UUID actual = (UUID) converter.convertDataValueToObjectValue(data, null);
+
+        // Assert
+        assertEquals(16, data.length);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void string_parameter() {
+        // Arrange
+        UUID expected = UUID.randomUUID();
+
+        // Act
+        byte[] data = (byte[]) converter.convertObjectValueToDataValue(expected.toString(), null);
+        UUID actual = (UUID) converter.convertDataValueToObjectValue(data, null);
+
+        // Assert
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void generated_ids_sort_by_time() throws InterruptedException {
+        // Arrange
+        UUID first = TimeOrderedUUID.generate();
+        Thread.sleep(2);
+        UUID second = TimeOrderedUUID.generate();
+
+        // Act
+        byte[] firstData = (byte[]) converter.convertObjectValueToDataValue(first, null);
+        byte[] secondData = (byte[]) converter.convertObjectValueToDataValue(second, null);
+
+        // Assert
+        assertEquals(7, first.version());
+        assertEquals(2, first.variant());
+        assertTrue(compareUnsigned(firstData, secondData) < 0);
+    }
+
+    private int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int difference = Byte.toUnsignedInt(a[i]) - Byte.toUnsignedInt(b[i]);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return 0;
+    }
+
+}